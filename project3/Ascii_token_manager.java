@@ -0,0 +1,558 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A token manager for MiniJava sources that are plain ASCII, a drop-in for the generated
+ * MiniJavaParserTokenManager.
+ *
+ * Every byte is classified through one table and the class decides what the token can be:
+ * punctuation is looked up in a second table, words are matched against the keywords with
+ * a perfect hash on their first byte, last byte and length. Every other token shares the one String
+ * of its kind, and identifiers and integer literals are looked up by their bytes among the images
+ * met before, so a name gets a String only the first time it shows up.
+ * A Token itself cannot be shared, the parser links every token it reads through next.
+ *
+ * Lines are only counted on the newlines skipped between tokens, and a column is the distance
+ * from the last newline (or the last tab, which moves to the next tab stop like JavaCharStream
+ * does), so nothing is tracked per character. Comments are skipped without becoming special
+ * tokens, nothing in the parser or the tree reads them.
+ *
+ * Without positions even that is left out: newlines and tabs are skipped like spaces, and every
+ * token is an Offset_token that only knows where in the source it starts. Nothing but an error
+ * message reads a position, so locate() works out the ones a ParseException reports, from an index
+ * of the newlines in the source that is only built when it is first needed.
+ *
+ * The first time a backslash, a non ASCII byte or anything that is not a MiniJava token shows up,
+ * the rest of the source is handed to the generated token manager over a ByteCharStream that
+ * starts there. Unicode escapes and letters are then decoded as before and lexical errors are
+ * reported by the generated code, with the same message and position. A stream given through
+ * ReInit is read by the generated code all the way.
+ */
+class Ascii_token_manager extends MiniJavaParserTokenManager
+{
+    // classes of bytes
+    private static final byte OTHER = 0;
+    private static final byte SPACE = 1;
+    private static final byte TAB = 2;
+    private static final byte NEWLINE = 3;
+    private static final byte LETTER = 4;
+    private static final byte DIGIT = 5;
+    private static final byte PUNCT = 6;
+    private static final byte SLASH = 7;
+    private static final byte AMP = 8;
+
+    private static final byte[] CLASSES = new byte[256];
+    // the same with tabs and newlines as spaces, for when no positions are kept
+    private static final byte[] PLAIN_CLASSES;
+    // kind of the token a punctuation byte stands for
+    private static final byte[] PUNCT_KINDS = new byte[128];
+
+    // keywords by (first byte + 3 * last byte + length) & 63, which no two keywords share
+    private static final byte[][] KEYWORDS = new byte[64][];
+    private static final byte[] KEYWORD_KINDS = new byte[64];
+
+    // initial size of the table of images, and the largest one release() keeps rather than shrinks
+    private static final int IMAGES = 256;
+    private static final int MAX_KEPT_IMAGES = 4096;
+
+    private static final byte[] PRINT_BYTES = "System.out.println".getBytes(StandardCharsets.US_ASCII);
+
+    static
+    {
+        // bytes from 0x80 up stay OTHER, they only come in multi-byte characters
+        CLASSES[' '] = SPACE;
+        CLASSES['\f'] = SPACE;
+        CLASSES['\t'] = TAB;
+        CLASSES['\n'] = NEWLINE;
+        CLASSES['\r'] = NEWLINE;
+        for(int c = 'a'; c <= 'z'; c++) CLASSES[c] = LETTER;
+        for(int c = 'A'; c <= 'Z'; c++) CLASSES[c] = LETTER;
+        CLASSES['$'] = LETTER;
+        CLASSES['_'] = LETTER;
+        for(int c = '0'; c <= '9'; c++) CLASSES[c] = DIGIT;
+        CLASSES['/'] = SLASH;
+        CLASSES['&'] = AMP;
+
+        for(int kind = LPAREN; kind < tokenImage.length; kind++)
+        {
+            String image = jjstrLiteralImages[kind];
+            if(image == null) continue;
+
+            byte[] b = image.getBytes(StandardCharsets.US_ASCII);
+            if(b.length == 1)
+            {
+                CLASSES[b[0]] = PUNCT;
+                PUNCT_KINDS[b[0]] = (byte) kind;
+            }
+            else if(CLASSES[b[0]] == LETTER && kind != PRINT)
+            {
+                int h = keyword_hash(b[0], b[b.length - 1], b.length);
+                if(KEYWORDS[h] != null) throw new ExceptionInInitializerError("keywords " + image + " and " + new String(KEYWORDS[h], StandardCharsets.US_ASCII) + " share a hash");
+                KEYWORDS[h] = b;
+                KEYWORD_KINDS[h] = (byte) kind;
+            }
+        }
+
+        PLAIN_CLASSES = CLASSES.clone();
+        PLAIN_CLASSES['\t'] = SPACE;
+        PLAIN_CLASSES['\n'] = SPACE;
+        PLAIN_CLASSES['\r'] = SPACE;
+    }
+
+    // the source and the part of it still to be read
+    private ByteBuffer data;
+    private int pos;
+    private int limit;
+    // where the part started and the line and column it started at
+    private int start;
+    private int start_line;
+    private int start_column;
+
+    // whether tokens get their line and column as they are read, or only their offset
+    private boolean positions;
+    private byte[] classes;
+    // offsets where the lines after the first start, built by the first locate() when there are no positions
+    private int[] line_starts;
+    private int line_count;
+
+    // line being read, and the offset and column of a character on it that later columns count from
+    private int line;
+    private int base;
+    private int base_column;
+    // where the last newline skipped is, for the position of the end of file
+    private int newline_line;
+    private int newline_column;
+
+    // the images of the identifiers and literals met so far, by the hash of their bytes, so that all
+    // the occurrences of a name share one String and the tree holds every name once
+    // release() empties it, and shrinks it back when a large source grew it
+    private String[] images;
+    private int[] image_hashes;
+    private int image_count;
+
+    // tokens handed to the parser so far
+    long tokens;
+
+    public Ascii_token_manager(ByteBuffer data, int start, int limit, int startline, int startcolumn)
+    {
+        this(data, start, limit, startline, startcolumn, true);
+    }
+
+    public Ascii_token_manager(ByteBuffer data, int start, int limit, int startline, int startcolumn, boolean positions)
+    {
+        // there is no JavaCharStream until the source has to be handed to the generated code
+        super(null);
+        images = new String[IMAGES];
+        image_hashes = new int[IMAGES];
+        image_count = 0;
+        reset(data, start, limit, startline, startcolumn, positions);
+    }
+
+    // starts on another source, keeping the tables allocated for the last one
+    public void reset(ByteBuffer data, int start, int limit, int startline, int startcolumn, boolean positions)
+    {
+        this.data = data;
+        this.pos = start;
+        this.limit = limit;
+        this.start = start;
+        start_line = startline;
+        start_column = startcolumn;
+        input_stream = null;
+
+        this.positions = positions;
+        classes = positions ? CLASSES : PLAIN_CLASSES;
+        line_starts = null;
+
+        line = startline;
+        base = start - 1;
+        base_column = startcolumn - 1;
+        newline_line = startline;
+        newline_column = startcolumn - 1;
+        tokens = 0;
+    }
+
+    // lets go of the source and of the names read from it, so a token manager kept for later holds on to nothing
+    public void release()
+    {
+        data = null;
+        input_stream = null;
+        line_starts = null;
+
+        if(images.length > MAX_KEPT_IMAGES)
+        {
+            images = new String[IMAGES];
+            image_hashes = new int[IMAGES];
+        }
+        else if(image_count > 0) Arrays.fill(images, null);
+        image_count = 0;
+    }
+
+    @Override
+    public Token getNextToken()
+    {
+        tokens++;
+        if(input_stream != null) return super.getNextToken();
+
+        int p = pos;
+        final int end = limit;
+        final byte[] classes = this.classes;
+
+        for(;;)
+        {
+            if(p >= end) return end_of_file();
+
+            int b = data.get(p) & 0xff;
+            switch(classes[b])
+            {
+                case SPACE:
+                    p++;
+                    continue;
+
+                case TAB:
+                    tab(p++);
+                    continue;
+
+                case NEWLINE:
+                    p = newline(p, b);
+                    continue;
+
+                case LETTER:
+                {
+                    int q = p + 1;
+                    int c = OTHER;
+                    int image_hash = b;
+                    while(q < end)
+                    {
+                        int next = data.get(q) & 0xff;
+                        if((c = classes[next]) != LETTER && c != DIGIT) break;
+                        image_hash = 31 * image_hash + next;
+                        q++;
+                    }
+                    // a word running into an escape or a non ASCII letter is left to the generated code
+                    if(q < end && c == OTHER) return generated(p);
+
+                    int length = q - p;
+                    if(b == 'S' && is_print(p)) return token(PRINT, jjstrLiteralImages[PRINT], p, PRINT_BYTES.length);
+
+                    int h = keyword_hash(b, data.get(q - 1), length);
+                    byte[] keyword = KEYWORDS[h];
+                    if(keyword != null && keyword.length == length && matches(keyword, p))
+                    {
+                        int kind = KEYWORD_KINDS[h];
+                        return token(kind, jjstrLiteralImages[kind], p, length);
+                    }
+                    return token(IDENTIFIER, image(p, length, image_hash), p, length);
+                }
+
+                case DIGIT:
+                {
+                    // a literal does not start with 0 unless it is 0 itself
+                    int q = p + 1;
+                    int image_hash = b;
+                    if(b != '0')
+                    {
+                        int next;
+                        while(q < end && classes[next = data.get(q) & 0xff] == DIGIT)
+                        {
+                            image_hash = 31 * image_hash + next;
+                            q++;
+                        }
+                    }
+                    // an escape right after it may be one more digit
+                    if(q < end && data.get(q) == '\\') return generated(p);
+                    return token(INTEGER_LITERAL, image(p, q - p, image_hash), p, q - p);
+                }
+
+                case PUNCT:
+                {
+                    int kind = PUNCT_KINDS[b];
+                    return token(kind, jjstrLiteralImages[kind], p, 1);
+                }
+
+                case AMP:
+                    if(p + 1 < end && data.get(p + 1) == '&') return token(AND, jjstrLiteralImages[AND], p, 2);
+                    return generated(p);
+
+                case SLASH:
+                {
+                    int line_before = line, base_before = base, base_column_before = base_column;
+                    int q = comment(p);
+                    if(q < 0)
+                    {
+                        // the generated code starts again where the comment started
+                        line = line_before;
+                        base = base_before;
+                        base_column = base_column_before;
+                        return generated(p);
+                    }
+                    p = q;
+                    continue;
+                }
+
+                default:
+                    return generated(p);
+            }
+        }
+    }
+
+    // skips the comment at p and returns the offset after it, or -1 when there is none the fast path can skip
+    private int comment(int p)
+    {
+        final int end = limit;
+        if(p + 1 >= end) return -1;
+
+        byte second = data.get(p + 1);
+        if(second == '/')
+        {
+            // a single line comment has to end with a newline
+            for(int q = p + 2; q < end; q++)
+            {
+                int b = data.get(q) & 0xff;
+                if(b == '\n' || b == '\r') return positions ? newline(q, b) : q + 1;
+                if(b >= 0x80 || b == '\\') return -1;
+                if(b == '\t' && positions) tab(q);
+            }
+            return -1;
+        }
+        if(second == '*')
+        {
+            // the generated code does not end "/**/" where it should, that one is left to it
+            if(p + 3 < end && data.get(p + 2) == '*' && data.get(p + 3) == '/') return -1;
+
+            // the star that closes the comment cannot be the one that opens it
+            boolean star = false;
+            for(int q = p + 2; q < end; q++)
+            {
+                int b = data.get(q) & 0xff;
+                if(star && b == '/') return q + 1;
+                star = b == '*';
+
+                if(b >= 0x80 || b == '\\') return -1;
+                if(!positions) continue;
+                if(b == '\n' || b == '\r') q = newline(q, b) - 1;
+                else if(b == '\t') tab(q);
+            }
+            return -1;
+        }
+        return -1;
+    }
+
+    // moves to the line after the newline at p, a \r\n pair being a single newline, and returns the offset after it
+    private int newline(int p, int b)
+    {
+        if(b == '\r' && p + 1 < limit && data.get(p + 1) == '\n') p++;
+
+        newline_line = line;
+        newline_column = column(p);
+        line++;
+        base = p;
+        base_column = 0;
+        return p + 1;
+    }
+
+    // a tab moves the column on to the next multiple of the tab size
+    private void tab(int p)
+    {
+        int before = column(p) - 1;
+        base_column = before + 8 - before % 8;
+        base = p;
+    }
+
+    // column of the character at p, nothing between the base and p may be a tab or a newline
+    private int column(int p)
+    {
+        return base_column + p - base;
+    }
+
+    private Token token(int kind, String image, int p, int length)
+    {
+        if(!positions)
+        {
+            pos = p + length;
+            return new Offset_token(kind, image, p);
+        }
+
+        Token t = Token.newToken(kind, image);
+        t.beginLine = t.endLine = line;
+        t.beginColumn = column(p);
+        t.endColumn = t.beginColumn + length - 1;
+        pos = p + length;
+        return t;
+    }
+
+    // the end of file sits where the last character of the source is, like JavaCharStream puts it
+    private Token end_of_file()
+    {
+        int last = limit - 1;
+        if(!positions)
+        {
+            pos = limit;
+            return new Offset_token(EOF, jjstrLiteralImages[EOF], last);
+        }
+
+        Token t = Token.newToken(EOF, jjstrLiteralImages[EOF]);
+        boolean after_newline = base == last && base_column == 0;
+        t.beginLine = t.endLine = after_newline ? newline_line : line;
+        t.beginColumn = t.endColumn = after_newline ? newline_column : column(last);
+        pos = limit;
+        return t;
+    }
+
+    // hands the source from p on to the generated token manager
+    private Token generated(int p)
+    {
+        pos = p;
+        if(positions) super.ReInit(new ByteCharStream(data, p, limit, line, column(p)));
+        else super.ReInit(new ByteCharStream(data, p, limit, line_at(p), column_at(p)));
+        return super.getNextToken();
+    }
+
+    // the same exception with the positions of the tokens it reports worked out, when they were read without
+    public ParseException locate(ParseException ex)
+    {
+        if(ex.currentToken == null || positions) return ex;
+
+        for(Token t = ex.currentToken; t != null; t = t.next)
+        {
+            if(!(t instanceof Offset_token) || t.beginLine != 0) continue;
+
+            int p = ((Offset_token) t).offset;
+            t.beginLine = t.endLine = line_at(p);
+            t.beginColumn = column_at(p);
+            // the end of file has no length, every other token is its image
+            t.endColumn = t.beginColumn + Math.max(t.image.length() - 1, 0);
+        }
+        return new ParseException(ex.currentToken, ex.expectedTokenSequences, ex.tokenImage);
+    }
+
+    // line of the character at p, a newline being on the line it ends
+    private int line_at(int p)
+    {
+        return start_line + line_index(p);
+    }
+
+    // column of the character at p, counted from the start of its line the way JavaCharStream counts it
+    private int column_at(int p)
+    {
+        int i = line_index(p);
+        int column = i == 0 ? start_column - 1 : 0;
+        // nothing the fast path read holds an escape or a multi-byte character, every byte is a column
+        for(int q = i == 0 ? start : line_starts[i - 1]; q <= p; q++)
+        {
+            column++;
+            if(data.get(q) == '\t')
+            {
+                column--;
+                column += 8 - column % 8;
+            }
+        }
+        return column;
+    }
+
+    // lines before the one of the character at p
+    private int line_index(int p)
+    {
+        if(line_starts == null) index_lines();
+
+        // the number of lines starting at or before p
+        int low = 0, high = line_count;
+        while(low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if(line_starts[middle] <= p) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private void index_lines()
+    {
+        line_starts = new int[64];
+        line_count = 0;
+        for(int p = start; p < limit; p++)
+        {
+            int b = data.get(p);
+            if(b != '\n' && b != '\r') continue;
+            if(b == '\r' && p + 1 < limit && data.get(p + 1) == '\n') p++;
+
+            if(line_count == line_starts.length) line_starts = Arrays.copyOf(line_starts, 2 * line_count);
+            line_starts[line_count++] = p + 1;
+        }
+    }
+
+    private boolean is_print(int p)
+    {
+        return p + PRINT_BYTES.length <= limit && matches(PRINT_BYTES, p);
+    }
+
+    private boolean matches(byte[] b, int p)
+    {
+        for(int i = 0; i < b.length; i++)
+        {
+            if(data.get(p + i) != b[i]) return false;
+        }
+        return true;
+    }
+
+    // the one String for the bytes of an identifier or a literal, which hash to image_hash
+    private String image(int p, int length, int image_hash)
+    {
+        int mask = images.length - 1;
+        for(int i = image_hash & mask; ; i = (i + 1) & mask)
+        {
+            String image = images[i];
+            if(image == null) break;
+            if(image_hashes[i] == image_hash && image.length() == length && same(image, p)) return image;
+        }
+
+        String image;
+        if(data.hasArray()) image = new String(data.array(), data.arrayOffset() + p, length, StandardCharsets.ISO_8859_1);
+        else
+        {
+            byte[] b = new byte[length];
+            data.get(p, b);
+            image = new String(b, StandardCharsets.ISO_8859_1);
+        }
+
+        // the table is kept at most half full
+        if(2 * ++image_count > images.length) grow_images();
+        add_image(image, image_hash);
+        return image;
+    }
+
+    private boolean same(String image, int p)
+    {
+        for(int i = 0; i < image.length(); i++)
+        {
+            if(image.charAt(i) != data.get(p + i)) return false;
+        }
+        return true;
+    }
+
+    private void add_image(String image, int image_hash)
+    {
+        int mask = images.length - 1;
+        int i = image_hash & mask;
+        while(images[i] != null) i = (i + 1) & mask;
+        images[i] = image;
+        image_hashes[i] = image_hash;
+    }
+
+    private void grow_images()
+    {
+        String[] old_images = images;
+        int[] old_hashes = image_hashes;
+        images = new String[2 * old_images.length];
+        image_hashes = new int[2 * old_images.length];
+        for(int i = 0; i < old_images.length; i++)
+        {
+            if(old_images[i] != null) add_image(old_images[i], old_hashes[i]);
+        }
+    }
+
+    private static int keyword_hash(int first, int last, int length)
+    {
+        return (first + 3 * last + length) & 63;
+    }
+}
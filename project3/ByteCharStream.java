@@ -0,0 +1,444 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A JavaCharStream that reads straight out of an in-memory byte[] or a memory-mapped file.
+ *
+ * Plain ASCII bytes are returned as they are. Unicode escapes and UTF-8 sequences are only
+ * decoded when a backslash or a non ASCII byte actually shows up, so on ordinary sources a
+ * character costs one byte load. Line and column numbers are not kept per character either;
+ * they are worked out when the token manager asks for them, by moving a cursor forward over
+ * the bytes between the positions it asks about.
+ */
+public class ByteCharStream extends JavaCharStream
+{
+    // files at least this big are mapped instead of read into the heap
+    static final long MAP_THRESHOLD = 1 << 20;
+
+    // the source and the range of it this stream reads
+    private final ByteBuffer data;
+    private final int start;
+    private final int limit;
+
+    // offset of the next byte to read and the offset where the last character read started
+    private int pos;
+    private int last;
+    // where the current token starts, the last character before it and how many characters it has so far
+    private int token_begin;
+    private int before_token;
+    private int token_chars;
+    // false once the current token holds an escape or a multi-byte character
+    private boolean plain;
+
+    // length in bytes of the character decode() returned last
+    private int width;
+
+    // cursor used to compute line and column numbers, it has processed every character before cursor_next
+    private int cursor_next;
+    private int cursor_last;
+    private int cursor_line;
+    private int cursor_column;
+    // line and column of the character at cursor_last
+    // at the end of the input there is no character, and the end of input token is where the counting got to instead,
+    // which is past the last hex digit of an escape and not on its backslash, as in JavaCharStream
+    private int cursor_line_at;
+    private int cursor_column_at;
+    private boolean cursor_cr;
+    private boolean cursor_lf;
+    // the state the cursor goes back to, the start of the range until adjustBeginLineColumn() moves it
+    private int anchor_next;
+    private int anchor_last;
+    private int anchor_line;
+    private int anchor_column;
+    private int anchor_line_at;
+    private int anchor_column_at;
+    private boolean anchor_cr;
+    private boolean anchor_lf;
+
+    public ByteCharStream(byte[] data)
+    {
+        this(ByteBuffer.wrap(data), 0, data.length, 1, 1);
+    }
+
+    public ByteCharStream(ByteBuffer data, int start, int limit, int startline, int startcolumn)
+    {
+        super(startline, startcolumn);
+        this.data = data;
+        this.start = start;
+        this.limit = limit;
+
+        pos = start;
+        last = start - 1;
+        token_begin = start;
+        before_token = start - 1;
+        token_chars = 0;
+        plain = true;
+
+        anchor_next = start;
+        anchor_last = start - 1;
+        anchor_line = anchor_line_at = startline;
+        anchor_column = anchor_column_at = startcolumn - 1;
+        anchor_cr = false;
+        anchor_lf = false;
+        reset_cursor();
+    }
+
+    // opens a source file, mapping it when it is large and reading it into a byte[] otherwise
+    public static ByteCharStream open(String path) throws IOException
+    {
+        ByteBuffer data = load(path);
+        return new ByteCharStream(data, 0, data.limit(), 1, 1);
+    }
+
+    // the bytes of a source file, mapped when the file is large
+    public static ByteBuffer load(String path) throws IOException
+    {
+        try(FileInputStream in = new FileInputStream(path))
+        {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE) throw new IOException(path + " is too large");
+
+            if(size >= MAP_THRESHOLD) return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while(data.hasRemaining() && channel.read(data) >= 0);
+            data.flip();
+            return data;
+        }
+    }
+
+    /** @return starting character for token. */
+    @Override
+    public char BeginToken() throws IOException
+    {
+        token_begin = pos;
+        before_token = last;
+        token_chars = 0;
+        plain = true;
+        return readChar();
+    }
+
+    /** Read a character. */
+    @Override
+    public char readChar() throws IOException
+    {
+        int p = pos;
+        if(p < limit)
+        {
+            byte b = data.get(p);
+            // ASCII fast path, everything but a backslash stands for itself
+            if(b >= 0 && b != '\\')
+            {
+                last = p;
+                pos = p + 1;
+                token_chars++;
+                return (char) b;
+            }
+        }
+        else throw new IOException();
+
+        char c = decode(p);
+        if(width != 1) plain = false;
+        last = p;
+        pos = p + width;
+        token_chars++;
+        return c;
+    }
+
+    /** Retreat. */
+    @Override
+    public void backup(int amount)
+    {
+        if(amount == 0) return;
+
+        token_chars -= amount;
+        if(plain && token_chars >= 0)
+        {
+            pos -= amount;
+            last = pos - 1;
+            return;
+        }
+
+        // the token holds characters wider than a byte, so the characters are walked again from its start
+        int p = token_begin;
+        int prev = before_token;
+        int chars = Math.max(token_chars, 0);
+        try{
+            for(int i = 0; i < chars; i++)
+            {
+                decode(p);
+                prev = p;
+                p += width;
+            }
+        }
+        catch(IOException ex){
+            throw new Error(ex.getMessage());
+        }
+        token_chars = chars;
+        pos = p;
+        last = prev;
+    }
+
+    /** @return token image as String */
+    @Override
+    public String GetImage()
+    {
+        if(plain) return new String(bytes(token_begin, pos), java.nio.charset.StandardCharsets.ISO_8859_1);
+
+        StringBuilder image = new StringBuilder(pos - token_begin);
+        try{
+            for(int p = token_begin; p < pos; p += width) image.append(decode(p));
+        }
+        catch(IOException ex){
+            throw new Error(ex.getMessage());
+        }
+        return image.toString();
+    }
+
+    /** @return suffix */
+    @Override
+    public char[] GetSuffix(int len)
+    {
+        String image = GetImage();
+        return image.substring(image.length() - len).toCharArray();
+    }
+
+    /** Get end column. */
+    @Override
+    public int getEndColumn()
+    {
+        move_cursor(last);
+        return token_chars == 0 ? cursor_column : cursor_column_at;
+    }
+
+    /** Get end line. */
+    @Override
+    public int getEndLine()
+    {
+        move_cursor(last);
+        return token_chars == 0 ? cursor_line : cursor_line_at;
+    }
+
+    /** @return column of token start */
+    @Override
+    public int getBeginColumn()
+    {
+        move_cursor(token_chars == 0 ? last : token_begin);
+        return token_chars == 0 ? cursor_column : cursor_column_at;
+    }
+
+    /** @return line number of token start */
+    @Override
+    public int getBeginLine()
+    {
+        move_cursor(token_chars == 0 ? last : token_begin);
+        return token_chars == 0 ? cursor_line : cursor_line_at;
+    }
+
+    @Override
+    @Deprecated
+    public int getColumn()
+    {
+        return getEndColumn();
+    }
+
+    @Override
+    @Deprecated
+    public int getLine()
+    {
+        return getEndLine();
+    }
+
+    /**
+     * Method to adjust line and column numbers for the start of a token.
+     *
+     * The token starts at newLine and newCol from now on, and lines and columns are counted on from
+     * there. The cursor is moved to the start of the token and made the place it goes back to, so
+     * positions before the token are not known any more.
+     */
+    @Override
+    public void adjustBeginLineColumn(int newLine, int newCol)
+    {
+        move_cursor(token_chars == 0 ? last : token_begin);
+
+        cursor_line += newLine - cursor_line_at;
+        cursor_column += newCol - cursor_column_at;
+        cursor_line_at = newLine;
+        cursor_column_at = newCol;
+
+        anchor_next = cursor_next;
+        anchor_last = cursor_last;
+        anchor_line = cursor_line;
+        anchor_column = cursor_column;
+        anchor_line_at = cursor_line_at;
+        anchor_column_at = cursor_column_at;
+        anchor_cr = cursor_cr;
+        anchor_lf = cursor_lf;
+    }
+
+    /** Set buffers back to null when finished. */
+    @Override
+    public void Done()
+    {
+    }
+
+    private byte[] bytes(int from, int to)
+    {
+        byte[] b = new byte[to - from];
+        data.get(from, b);
+        return b;
+    }
+
+    // decodes the character that starts at off and sets width to the number of bytes it takes
+    private char decode(int off) throws IOException
+    {
+        if(off >= limit) throw new IOException();
+
+        int b = data.get(off) & 0xff;
+        if(b == '\\')
+        {
+            width = 1;
+            if(!starts_escape(off)) return '\\';
+
+            // an odd backslash followed by one or more u's and four hex digits
+            int p = off + 1;
+            while(p < limit && data.get(p) == 'u') p++;
+            int c = 0;
+            try{
+                if(p + 4 > limit) throw new IOException();
+                for(int i = 0; i < 4; i++) c = c << 4 | hexval((char) data.get(p + i));
+            }
+            catch(IOException ex){
+                throw new Error("Invalid escape character at offset " + off + ".");
+            }
+            width = p + 4 - off;
+            return (char) c;
+        }
+        if(b < 0x80)
+        {
+            width = 1;
+            return (char) b;
+        }
+
+        // UTF-8, characters outside the basic plane are not valid MiniJava and become U+FFFD
+        int length = b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : b >= 0xc0 ? 2 : 1;
+        if(length == 1 || off + length > limit)
+        {
+            width = 1;
+            return '\uFFFD';
+        }
+        int c = b & (0x7f >> length);
+        for(int i = 1; i < length; i++)
+        {
+            int next = data.get(off + i) & 0xff;
+            if((next & 0xc0) != 0x80)
+            {
+                width = 1;
+                return '\uFFFD';
+            }
+            c = c << 6 | (next & 0x3f);
+        }
+        width = length;
+        return length == 4 ? '\uFFFD' : (char) c;
+    }
+
+    // a backslash starts an escape when a u follows and it is not itself escaped by an odd run of backslashes
+    private boolean starts_escape(int off)
+    {
+        if(off + 1 >= limit || data.get(off + 1) != 'u') return false;
+
+        int backslashes = 0;
+        for(int p = off - 1; p >= start && data.get(p) == '\\'; p--) backslashes++;
+        return (backslashes & 1) == 0;
+    }
+
+    private void reset_cursor()
+    {
+        cursor_next = anchor_next;
+        cursor_last = anchor_last;
+        cursor_line = anchor_line;
+        cursor_column = anchor_column;
+        cursor_line_at = anchor_line_at;
+        cursor_column_at = anchor_column_at;
+        cursor_cr = anchor_cr;
+        cursor_lf = anchor_lf;
+    }
+
+    // moves the cursor until the character starting at off has been processed, counting lines and columns like JavaCharStream does
+    private void move_cursor(int off)
+    {
+        if(off == cursor_last) return;
+        // positions are asked for in increasing order, going back only happens while reporting an error
+        if(off < cursor_last) reset_cursor();
+
+        try{
+            while(cursor_next <= off)
+            {
+                // printable ASCII only moves the column on
+                byte b = data.get(cursor_next);
+                if(b >= ' ' && b != '\\' && !cursor_cr && !cursor_lf)
+                {
+                    cursor_column_at = ++cursor_column;
+                    cursor_line_at = cursor_line;
+                    cursor_last = cursor_next++;
+                    continue;
+                }
+
+                char c = decode(cursor_next);
+                boolean escape = width > 1 && data.get(cursor_next) == '\\';
+
+                // an escape is placed where its backslash is, the rest of it only moves the column on
+                update_cursor(escape ? '\\' : c);
+                cursor_line_at = cursor_line;
+                cursor_column_at = cursor_column;
+                if(escape)
+                {
+                    update_cursor('u');
+                    cursor_column += width - 2;
+                }
+
+                cursor_last = cursor_next;
+                cursor_next += width;
+            }
+        }
+        catch(IOException ex){
+            throw new Error(ex.getMessage());
+        }
+    }
+
+    private void update_cursor(char c)
+    {
+        cursor_column++;
+
+        if(cursor_lf)
+        {
+            cursor_lf = false;
+            cursor_line += (cursor_column = 1);
+        }
+        else if(cursor_cr)
+        {
+            cursor_cr = false;
+            if(c == '\n') cursor_lf = true;
+            else cursor_line += (cursor_column = 1);
+        }
+
+        switch(c)
+        {
+            case '\r':
+                cursor_cr = true;
+                break;
+            case '\n':
+                cursor_lf = true;
+                break;
+            case '\t':
+                cursor_column--;
+                cursor_column += (tabSize - (cursor_column % tabSize));
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Holds everything one compilation printed, so that a batch can replay it later in input order
+class Captured_output
+{
+    // printed chunks in the order they were written and whether each one went to stderr
+    private final List<byte[]> chunks;
+    private final List<Boolean> to_err;
+
+    public final PrintStream out;
+    public final PrintStream err;
+    // the compilation printing into this output
+    Future<Void> result;
+
+    public Captured_output()
+    {
+        chunks = new ArrayList<byte[]>();
+        to_err = new ArrayList<Boolean>();
+        out = new PrintStream(new Sink(false), true);
+        err = new PrintStream(new Sink(true), true);
+    }
+
+    // waits for the compilation to finish and returns what it threw, if anything
+    public Throwable await() throws InterruptedException
+    {
+        try{
+            result.get();
+        }
+        catch(ExecutionException ex){
+            return ex.getCause();
+        }
+        return null;
+    }
+
+    // writes the captured chunks to the given stdout and stderr
+    public synchronized void replay(PrintStream out, PrintStream err)
+    {
+        for(int i = 0; i < chunks.size(); i++)
+        {
+            PrintStream stream = to_err.get(i) ? err : out;
+            stream.write(chunks.get(i), 0, chunks.get(i).length);
+            stream.flush();
+        }
+    }
+
+    private class Sink extends OutputStream
+    {
+        private final boolean err;
+
+        Sink(boolean err)
+        {
+            this.err = err;
+        }
+
+        @Override
+        public void write(int b)
+        {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+            synchronized(Captured_output.this)
+            {
+                chunks.add(Arrays.copyOfRange(b, off, off + len));
+                to_err.add(err);
+            }
+        }
+    }
+}
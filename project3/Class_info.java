@@ -0,0 +1,38 @@
+import java.util.*;
+
+// A class, its fields and its methods, in declaration order
+class Class_info
+{
+    public final int id;
+    public final String name;
+    // id of the name of the parent class, -1 when the class extends nothing
+    public final int parent_id;
+    public final LinkedHashMap<Integer, Var_info> fields;
+    public final LinkedHashMap<Integer, Method_info> methods;
+
+    // bytes taken by the fields of the class and its ancestors, and its methods by slot, inherited ones included
+    public int field_size;
+    public final List<Method_info> vtable;
+    boolean laid_out;
+
+    private final Symbol_table table;
+
+    Class_info(Symbol_table table, int id, String name, int parent_id)
+    {
+        this.table = table;
+        this.id = id;
+        this.name = name;
+        this.parent_id = parent_id;
+        fields = new LinkedHashMap<Integer, Var_info>();
+        methods = new LinkedHashMap<Integer, Method_info>();
+        field_size = 0;
+        vtable = new ArrayList<Method_info>();
+        laid_out = false;
+    }
+
+    // the parent class, null when there is none or it was never declared
+    public Class_info parent()
+    {
+        return parent_id < 0 ? null : table.class_of(parent_id);
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// On-disk cache of generated IR, keyed by a hash of the source bytes and the compiler version.
+//
+// Every entry is a file <hash>.ll in the cache directory. The entries are kept in least recently
+// used order (taken from their modification times when the cache is opened, and touched on
+// every hit), and the oldest ones are removed whenever the total size goes over the limit.
+class Compile_cache
+{
+    // default limit on the total size of the cached IR
+    static final long DEFAULT_LIMIT = 256L << 20;
+
+    private final Path dir;
+    private final long limit;
+    // entries and their sizes, least recently used first
+    private final LinkedHashMap<String, Long> entries;
+    private long size;
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    public Compile_cache(String dir, long limit) throws IOException
+    {
+        this.dir = Paths.get(dir);
+        this.limit = limit;
+        entries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+        size = 0;
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        evictions = new AtomicLong();
+
+        Files.createDirectories(this.dir);
+
+        // entries left by earlier runs, oldest first
+        List<Path> found = new ArrayList<Path>();
+        try(Stream<Path> files = Files.list(this.dir))
+        {
+            files.filter(p -> p.getFileName().toString().endsWith(".ll")).forEach(found::add);
+        }
+        Map<Path, FileTime> times = new HashMap<Path, FileTime>();
+        for(Path p: found) times.put(p, Files.getLastModifiedTime(p));
+        found.sort((a, b) -> times.get(a).compareTo(times.get(b)));
+
+        for(Path p: found)
+        {
+            long length = Files.size(p);
+            entries.put(p.getFileName().toString(), length);
+            size += length;
+        }
+        evict();
+    }
+
+    // the key of a source: hex SHA-256 of the compiler version and the source bytes
+    public static String key(ByteBuffer source)
+    {
+        try{
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Main.VERSION.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.duplicate());
+
+            StringBuilder hex = new StringBuilder(64);
+            for(byte b: digest.digest()) hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            return hex.toString();
+        }
+        catch(NoSuchAlgorithmException ex){
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // copies the cached IR for the key to target, returns false on a miss
+    public boolean fetch(String key, Path target) throws IOException
+    {
+        String name = key + ".ll";
+        Path entry = dir.resolve(name);
+
+        synchronized(this)
+        {
+            if(entries.get(name) == null)
+            {
+                misses.incrementAndGet();
+                return false;
+            }
+        }
+
+        try{
+            Files.copy(entry, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch(NoSuchFileException ex){
+            // removed behind our back, by another process sharing the directory
+            synchronized(this)
+            {
+                Long length = entries.remove(name);
+                if(length != null) size -= length;
+            }
+            misses.incrementAndGet();
+            return false;
+        }
+
+        hits.incrementAndGet();
+        return true;
+    }
+
+    // stores the IR that was generated for the key
+    public void store(String key, Path generated) throws IOException
+    {
+        String name = key + ".ll";
+
+        // written under a temporary name first so that readers never see half an entry
+        Path temp = Files.createTempFile(dir, key, ".tmp");
+        try{
+            Files.copy(generated, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally{
+            Files.deleteIfExists(temp);
+        }
+
+        long length = Files.size(dir.resolve(name));
+        synchronized(this)
+        {
+            Long old = entries.put(name, length);
+            size += length - (old == null ? 0 : old);
+            evict();
+        }
+    }
+
+    // removes the least recently used entries until the cache fits in its limit
+    private synchronized void evict() throws IOException
+    {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while(size > limit && it.hasNext())
+        {
+            Map.Entry<String, Long> oldest = it.next();
+            Files.deleteIfExists(dir.resolve(oldest.getKey()));
+            size -= oldest.getValue();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized String stats()
+    {
+        return "cache: " + hits.get() + " hits, " + misses.get() + " misses, " + evictions.get() + " evictions, " + entries.size() + " entries, " + size + "/" + limit + " bytes";
+    }
+
+    // parses a size such as 4096, 512K, 64M or 2G
+    static long parse_size(String s)
+    {
+        long unit = 1;
+        char last = Character.toUpperCase(s.charAt(s.length() - 1));
+        if(last == 'K') unit = 1L << 10;
+        else if(last == 'M') unit = 1L << 20;
+        else if(last == 'G') unit = 1L << 30;
+        if(unit != 1) s = s.substring(0, s.length() - 1);
+
+        return Long.parseLong(s) * unit;
+    }
+}
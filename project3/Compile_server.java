@@ -0,0 +1,184 @@
+import java.io.*;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Keeps one warm JVM around so that the parser, the token manager and the visitors are not
+// started cold for every file.
+//
+// Clients connect over a Unix domain socket and send the paths to compile, one per line,
+// followed by an empty line. The reply holds what every compilation printed, in the order
+// the paths were sent, as frames: a stream byte (1 stdout, 2 stderr), a length and the bytes.
+// A 0 byte followed by the number of failed compilations ends the reply.
+class Compile_server
+{
+    static final int END = 0;
+    static final int STDOUT = 1;
+    static final int STDERR = 2;
+
+    // runs the server until the process is killed, returns the exit status when it cannot start
+    static int serve(String socket, int jobs) throws IOException
+    {
+        Path path = Paths.get(socket);
+        String taken = remove_stale_socket(path);
+        if(taken != null)
+        {
+            System.err.println("Not starting the compile server: " + taken);
+            return 1;
+        }
+
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try{
+                Files.deleteIfExists(path);
+            }
+            catch(IOException ex){
+                System.err.println(ex.getMessage());
+            }
+        }));
+
+        // compilations of all clients share the workers, every client gets a thread that waits for its files
+        ExecutorService workers = Executors.newFixedThreadPool(jobs);
+        ExecutorService clients = Executors.newCachedThreadPool();
+
+        System.err.println("Compile server listening on " + socket);
+        while(true)
+        {
+            SocketChannel channel = server.accept();
+            clients.execute(() -> {
+                try(SocketChannel c = channel)
+                {
+                    handle(c, workers);
+                }
+                catch(IOException | InterruptedException ex){
+                    System.err.println(ex.getMessage());
+                }
+            });
+        }
+    }
+
+    private static void handle(SocketChannel channel, ExecutorService workers) throws IOException, InterruptedException
+    {
+        BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        DataOutputStream reply = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+        List<String> files = new ArrayList<String>();
+        String line;
+        while((line = in.readLine()) != null && !line.isEmpty()) files.add(line);
+        // a client that hangs up before the empty line, like the check for a stale socket, gets no reply
+        if(line == null) return;
+
+        PrintStream out = new PrintStream(new Frame_stream(reply, STDOUT), true);
+        PrintStream err = new PrintStream(new Frame_stream(reply, STDERR), true);
+
+        int failed = 0;
+        for(Captured_output output: Main.submit_batch(files, workers))
+        {
+            // a crash in one file must not take the server down, it is reported to the client instead
+            Throwable failure = output.await();
+            if(failure != null)
+            {
+                failure.printStackTrace(output.err);
+                failed++;
+            }
+            output.replay(out, err);
+        }
+
+        reply.writeByte(END);
+        reply.writeInt(failed);
+        reply.flush();
+    }
+
+    // a server that was killed leaves its socket behind, which is removed so the path can be bound again
+    // returns why the path cannot be used when anything else is there, or a server still answers on it
+    private static String remove_stale_socket(Path path) throws IOException
+    {
+        if(!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) return null;
+
+        // S_IFSOCK, a regular file or a directory given by mistake is never deleted
+        int mode = (Integer) Files.getAttribute(path, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+        if((mode & 0170000) != 0140000) return path + " exists and is not a socket";
+
+        try{
+            SocketChannel.open(UnixDomainSocketAddress.of(path)).close();
+        }
+        catch(ConnectException ex){
+            Files.delete(path);
+            return null;
+        }
+        return "a compile server is already listening on " + path;
+    }
+
+    // sends the files to a running server and prints its reply, returns the exit status for the client
+    static int submit(String socket, List<String> files) throws IOException
+    {
+        SocketChannel channel;
+        try{
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        }
+        catch(IOException ex){
+            System.err.println("No compile server on " + socket + ": " + ex.getMessage());
+            return 1;
+        }
+
+        try(SocketChannel c = channel)
+        {
+            // the server may run somewhere else, so paths are sent absolute
+            Writer request = new OutputStreamWriter(Channels.newOutputStream(c), StandardCharsets.UTF_8);
+            for(String file: files) request.write(new File(file).getAbsolutePath() + "\n");
+            request.write("\n");
+            request.flush();
+
+            DataInputStream reply = new DataInputStream(new BufferedInputStream(Channels.newInputStream(c)));
+            while(true)
+            {
+                int stream = reply.readByte();
+                if(stream == END) return reply.readInt() == 0 ? 0 : 1;
+
+                byte[] chunk = new byte[reply.readInt()];
+                reply.readFully(chunk);
+                PrintStream target = stream == STDERR ? System.err : System.out;
+                target.write(chunk, 0, chunk.length);
+                target.flush();
+            }
+        }
+    }
+
+    // turns every write into a frame of the reply
+    private static class Frame_stream extends OutputStream
+    {
+        private final DataOutputStream reply;
+        private final int stream;
+
+        Frame_stream(DataOutputStream reply, int stream)
+        {
+            this.reply = reply;
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            reply.writeByte(stream);
+            reply.writeInt(len);
+            reply.write(b, off, len);
+        }
+    }
+}
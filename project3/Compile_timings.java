@@ -0,0 +1,170 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import jdk.jfr.*;
+
+// Where the time and the allocations of one compilation go, split into the phases
+// read, parse (lexing included), semantic check, codegen and write.
+//
+// Phases may nest: the IR_Emitter flushes its buffer to the file in the middle of codegen,
+// and that is charged to write. Every phase only gets its own time, so the phases add up
+// to the whole compilation. Allocations are taken from the per-thread counter, which is
+// right as long as one compilation runs on one thread, as it does in batches and in the server.
+//
+// The same boundaries are committed as JFR events (minijava.Phase per phase entered and
+// minijava.Compile per file), so a recording shows them without --timings being given.
+class Compile_timings
+{
+    static final int READ = 0;
+    static final int PARSE = 1;
+    static final int SEMANTIC = 2;
+    static final int CODEGEN = 3;
+    static final int WRITE = 4;
+    static final String[] PHASES = { "read", "parse", "semantic", "codegen", "write" };
+
+    private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String file;
+    // own time and allocations of every phase, and whether it ran at all
+    private final long[] nanos;
+    private final long[] allocated;
+    private final boolean[] ran;
+
+    // the phases entered and not yet left, innermost last, with their JFR events
+    private final int[] stack;
+    private final Phase_event[] events;
+    private int depth;
+    // when the time and the allocation counter were last charged to a phase
+    private long mark_nanos;
+    private long mark_allocated;
+
+    private final Compile_event compile_event;
+
+    // sizes the report and the events are about
+    long source_bytes;
+    long tokens;
+    long ir_bytes;
+
+    public Compile_timings(String file)
+    {
+        this.file = file;
+        nanos = new long[PHASES.length];
+        allocated = new long[PHASES.length];
+        ran = new boolean[PHASES.length];
+        // deep enough for every phase nested in another
+        stack = new int[2 * PHASES.length];
+        events = new Phase_event[2 * PHASES.length];
+        depth = 0;
+
+        compile_event = new Compile_event();
+        compile_event.file = file;
+        compile_event.begin();
+    }
+
+    public void enter(int phase)
+    {
+        charge();
+        stack[depth] = phase;
+        ran[phase] = true;
+
+        Phase_event event = new Phase_event();
+        event.file = file;
+        event.phase = PHASES[phase];
+        event.begin();
+        events[depth++] = event;
+    }
+
+    public void exit()
+    {
+        charge();
+        Phase_event event = events[--depth];
+        events[depth] = null;
+        event.commit();
+    }
+
+    // ends the compilation, leaving whatever phase an exception left open
+    public void finish()
+    {
+        while(depth > 0) exit();
+
+        compile_event.source_bytes = source_bytes;
+        compile_event.tokens = tokens;
+        compile_event.ir_bytes = ir_bytes;
+        compile_event.commit();
+    }
+
+    // charges what happened since the last mark to the innermost phase
+    private void charge()
+    {
+        long now = System.nanoTime();
+        long bytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        if(depth > 0)
+        {
+            nanos[stack[depth - 1]] += now - mark_nanos;
+            allocated[stack[depth - 1]] += bytes - mark_allocated;
+        }
+        mark_nanos = now;
+        mark_allocated = bytes;
+    }
+
+    public void report(PrintStream out)
+    {
+        long total_nanos = 0;
+        long total_allocated = 0;
+
+        out.println("timings for " + file + ": " + source_bytes + " source bytes, " + tokens + " tokens, " + ir_bytes + " IR bytes");
+        out.printf("  %-9s %10s %12s%n", "phase", "ms", "MB alloc");
+        for(int i = 0; i < PHASES.length; i++)
+        {
+            if(!ran[i])
+            {
+                out.printf("  %-9s %10s %12s%n", PHASES[i], "-", "-");
+                continue;
+            }
+            out.printf("  %-9s %10.3f %12.3f%n", PHASES[i], nanos[i] / 1e6, allocated[i] / 1e6);
+            total_nanos += nanos[i];
+            total_allocated += allocated[i];
+        }
+        out.printf("  %-9s %10.3f %12.3f%n", "total", total_nanos / 1e6, total_allocated / 1e6);
+
+        // throughput of the phases that produce them, left out when they did not run (a cache hit is not parsed)
+        if(ran[PARSE] && nanos[PARSE] > 0) out.printf("  %.0f tokens/s%n", tokens / (nanos[PARSE] / 1e9));
+        long ir_nanos = nanos[CODEGEN] + nanos[WRITE];
+        if(ran[CODEGEN] && ir_nanos > 0) out.printf("  %.2f MB/s of IR%n", ir_bytes / 1e6 / (ir_nanos / 1e9));
+    }
+
+    @Name("minijava.Phase")
+    @Label("Compiler Phase")
+    @Category("MiniJava")
+    @Description("One phase of compiling a file: read, parse, semantic, codegen or write")
+    @StackTrace(false)
+    static class Phase_event extends Event
+    {
+        @Label("File")
+        String file;
+
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("minijava.Compile")
+    @Label("Compile")
+    @Category("MiniJava")
+    @Description("Compilation of one file")
+    @StackTrace(false)
+    static class Compile_event extends Event
+    {
+        @Label("File")
+        String file;
+
+        @Label("Source Size")
+        @DataAmount
+        long source_bytes;
+
+        @Label("Tokens")
+        long tokens;
+
+        @Label("IR Size")
+        @DataAmount
+        long ir_bytes;
+    }
+}
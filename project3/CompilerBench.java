@@ -0,0 +1,247 @@
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import syntaxtree.*;
+
+// Measures the phases of the compiler separately, so that every change to one of them can be
+// judged against a baseline:
+//
+//   lex       Ascii_token_manager.getNextToken over the whole source
+//   offlex    the same keeping only the offset of every token, as the compiler lexes
+//   jjlex     the generated MiniJavaParserTokenManager over a ByteCharStream, the baseline for lex
+//   parse     MiniJavaParser.Goal, lexing included since the parser drives the token manager
+//   pparse    Parallel_parser on the common ForkJoinPool, only what the calling thread allocates is counted
+//   lower     Flat_ast.lower over a tree parsed beforehand
+//   semantic  the declaration pass and MyVisitor over a tree parsed and lowered beforehand
+//   codegen   LLVM_Visitor over a tree parsed and lowered beforehand, into an IR_Emitter that only counts bytes
+//
+// Every phase gets warm-up rounds that are not reported, then measured rounds. For each phase
+// the report has the time per run, the throughput and the bytes allocated per run and per second
+// (taken from the thread allocation counter, so a GC during the run does not hide anything).
+// With the parse phase every input also gets the number of tokens the parser looked at to choose
+// between alternatives, per token of the source.
+//
+// The inputs are small (about the size of Example.java), medium and huge synthetic programs,
+// or the files given on the command line.
+//
+// Usage: java CompilerBench [-w warmup] [-r rounds] [-p lex,offlex,jjlex,parse,pparse,lower,semantic,codegen] [-s small,medium,huge] [files...]
+public class CompilerBench {
+
+    static final String[] PHASES = { "lex", "offlex", "jjlex", "parse", "pparse", "lower", "semantic", "codegen" };
+    static final String[] SIZES = { "small", "medium", "huge" };
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 5;
+        int rounds = 10;
+        List<String> phases = Arrays.asList(PHASES);
+        List<String> sizes = Arrays.asList(SIZES);
+        List<String> files = new ArrayList<String>();
+
+        for(int i = 0; i < args.length; i++)
+        {
+            if(args[i].equals("-w") && i + 1 < args.length) warmup = Integer.parseInt(args[++i]);
+            else if(args[i].equals("-r") && i + 1 < args.length) rounds = Integer.parseInt(args[++i]);
+            else if(args[i].equals("-p") && i + 1 < args.length) phases = Arrays.asList(args[++i].split(","));
+            else if(args[i].equals("-s") && i + 1 < args.length) sizes = Arrays.asList(args[++i].split(","));
+            else if(args[i].startsWith("-"))
+            {
+                System.err.println("Usage: java CompilerBench [-w warmup] [-r rounds] [-p lex,offlex,jjlex,parse,pparse,lower,semantic,codegen] [-s small,medium,huge] [files...]");
+                System.exit(1);
+            }
+            else files.add(args[i]);
+        }
+
+        // named inputs, in the order they are reported
+        Map<String, ByteBuffer> inputs = new LinkedHashMap<String, ByteBuffer>();
+        if(files.isEmpty())
+        {
+            for(String size: sizes) inputs.put(size, ByteBuffer.wrap(program(classes_for(size)).getBytes(StandardCharsets.UTF_8)));
+        }
+        else
+        {
+            for(String file: files) inputs.put(file, ByteCharStream.load(file));
+        }
+
+        System.out.println("warm-up rounds: " + warmup + ", measured rounds: " + rounds);
+        System.out.printf("%-10s %-9s %10s %10s %12s %12s %12s%n", "input", "phase", "ms/op", "MB/s", "tokens/s", "MB alloc/op", "MB alloc/s");
+        for(Map.Entry<String, ByteBuffer> input: inputs.entrySet())
+        {
+            ByteBuffer source = input.getValue();
+            long tokens = count_tokens(source);
+            for(String phase: phases)
+            {
+                Phase run = phase(phase, source);
+                if(run == null)
+                {
+                    System.err.println("Unknown phase " + phase);
+                    System.exit(1);
+                }
+
+                Result result = measure(run, warmup);
+                if(result.failure == null) result = measure(run, rounds);
+                if(result.failure != null)
+                {
+                    System.out.printf("%-10s %-9s failed: %s%n", input.getKey(), phase, result.failure.getMessage());
+                    continue;
+                }
+
+                double seconds = result.nanos / 1e9;
+                System.out.printf("%-10s %-9s %10.3f %10.2f %12.0f %12.3f %12.2f%n", input.getKey(), phase,
+                    result.nanos / 1e6, source.limit() / 1e6 / seconds, tokens / seconds, result.allocated / 1e6, result.allocated / 1e6 / seconds);
+            }
+            if(phases.contains("parse")) System.out.printf("%-10s lookahead scans per token: %.2f%n", input.getKey(), (double) count_scans(source) / tokens);
+        }
+    }
+
+    interface Phase
+    {
+        void run() throws Exception;
+    }
+
+    static class Result
+    {
+        // averages over the measured rounds
+        double nanos;
+        double allocated;
+        Throwable failure;
+    }
+
+    private static Result measure(Phase phase, int rounds)
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        Result result = new Result();
+
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        try{
+            for(int i = 0; i < rounds; i++) phase.run();
+        }
+        catch(Throwable ex){
+            result.failure = ex;
+            return result;
+        }
+        result.nanos = (double) (System.nanoTime() - start) / rounds;
+        result.allocated = (double) (threads.getThreadAllocatedBytes(thread) - allocated) / rounds;
+        return result;
+    }
+
+    private static Phase phase(String name, ByteBuffer source) throws Exception
+    {
+        switch(name)
+        {
+            case "lex":
+                return () -> count_tokens(source);
+            case "offlex":
+                return () -> count(new Ascii_token_manager(source, 0, source.limit(), 1, 1, false));
+            case "jjlex":
+                return () -> count_generated_tokens(source);
+            case "parse":
+                return () -> parse(source);
+            case "pparse":
+                return () -> new Parallel_parser(source, ForkJoinPool.commonPool()).parse();
+            case "lower":
+            {
+                Goal tree = parse(source);
+                return () -> Flat_ast.lower(tree);
+            }
+            case "semantic":
+            {
+                Flat_ast ast = Flat_ast.lower(parse(source));
+                return () -> new MyVisitor(ast, Declaration_visitor.collect(ast)).walk();
+            }
+            case "codegen":
+            {
+                // the declarations belong to the semantic phase, codegen gets them ready
+                Flat_ast ast = Flat_ast.lower(parse(source));
+                Symbol_table symbols = Declaration_visitor.collect(ast);
+                return () -> {
+                    LLVM_Visitor eval = new LLVM_Visitor(new IR_Emitter(null, IR_Emitter.DEFAULT_CAPACITY), ast, symbols);
+                    eval.walk();
+                    eval.ll_writer.close();
+                };
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static long count_tokens(ByteBuffer source) throws Exception
+    {
+        return count(new Ascii_token_manager(source, 0, source.limit(), 1, 1));
+    }
+
+    private static long count_generated_tokens(ByteBuffer source) throws Exception
+    {
+        return count(new MiniJavaParserTokenManager(new ByteCharStream(source, 0, source.limit(), 1, 1)));
+    }
+
+    private static long count(MiniJavaParserTokenManager lexer)
+    {
+        long tokens = 0;
+        while(lexer.getNextToken().kind != MiniJavaParserConstants.EOF) tokens++;
+        return tokens;
+    }
+
+    // tokens looked at by the parser to choose between alternatives
+    private static long count_scans(ByteBuffer source) throws ParseException
+    {
+        MiniJavaParser parser = new MiniJavaParser(new Ascii_token_manager(source, 0, source.limit(), 1, 1));
+        parser.Goal();
+        return parser.lookahead.scans;
+    }
+
+    private static Goal parse(ByteBuffer source) throws ParseException
+    {
+        MiniJavaParser parser = new MiniJavaParser(new Ascii_token_manager(source, 0, source.limit(), 1, 1));
+        return parser.Goal();
+    }
+
+    private static int classes_for(String size)
+    {
+        switch(size)
+        {
+            case "small": return 1;
+            case "medium": return 100;
+            case "huge": return 5000;
+            default: throw new IllegalArgumentException("Unknown size " + size + ", expected one of " + String.join(",", SIZES));
+        }
+    }
+
+    // a program with a main class shaped like Example.java and the given number of other classes,
+    // restricted to what both MyVisitor and LLVM_Visitor accept today
+    static String program(int classes)
+    {
+        StringBuilder s = new StringBuilder();
+        s.append("class Main {\n    public static void main(String[] args) {\n");
+        s.append("        int a;\n        int b;\n        int i;\n        int j;\n        boolean c;\n        boolean e;\n        int[] f;\n        boolean k;\n\n");
+        s.append("        a = 5;\n        b = 2;\n        a = a + b;\n        System.out.println(a + b);\n");
+        s.append("        i = 3;\n        j = 5;\n        c = i < j;\n        e = c && true;\n");
+        s.append("        a = b + (i + j);\n        System.out.println(a);\n");
+        s.append("        f = new int[5];\n        f[3] = 5;\n        a = f[3];\n        b = f.length;\n");
+        s.append("        k = true;\n        if(k)\n        {\n            k = false;\n        }\n        else k = true;\n");
+        s.append("        while(k)\n        {\n            k = false;\n        }\n    }\n}\n");
+
+        for(int n = 0; n < classes - 1; n++)
+        {
+            s.append("\nclass C").append(n).append(" {\n");
+            s.append("    int x;\n    boolean y;\n    int[] z;\n\n");
+            for(int m = 0; m < 3; m++)
+            {
+                s.append("    public int m").append(m).append("(int p, boolean q) {\n");
+                s.append("        int a;\n        int b;\n        boolean c;\n");
+                s.append("        a = ").append(n + m).append(";\n");
+                s.append("        b = a + (a * 2);\n");
+                s.append("        c = a < b;\n");
+                s.append("        if(c)\n        {\n            a = a + 1;\n        }\n        else a = a - 1;\n");
+                s.append("        while(c)\n        {\n            c = false;\n        }\n");
+                s.append("        System.out.println(a + b);\n");
+                s.append("        return a + b;\n    }\n\n");
+            }
+            s.append("}\n");
+        }
+        return s.toString();
+    }
+}
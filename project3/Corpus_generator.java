@@ -0,0 +1,490 @@
+import java.io.*;
+import java.util.*;
+
+// Generates MiniJava programs for scale testing, reproducibly: the same seed and sizes always
+// give the same program.
+//
+// The programs stay within the grammar in minijava.jj and are type correct MiniJava: every
+// variable is declared before use, every class and method a program refers to exists, calls
+// pass arguments of the declared parameter types and classes only extend classes declared
+// before them. They are meant to be parsed and compiled, not run, so loops need not terminate
+// and arrays may be used before they are allocated.
+//
+// Besides the number of classes and their sizes, three knobs stress specific parts of the compiler:
+//   -locals  locals per method, for symbol table growth
+//   -depth   how deep every method nests if and while statements once, for visitor recursion depth
+//   -expr    operands of one long right-nested expression per method, for parser lookahead and recursion
+//
+// Usage: java Corpus_generator [-seed N] [-classes N] [-fields N] [-methods N] [-locals N] [-statements N] [-depth N] [-expr N] [-o file]
+public class Corpus_generator
+{
+    static final String[] BASIC_TYPES = { "int", "boolean", "int[]", "boolean[]" };
+
+    private final Random random;
+
+    // number of classes besides the main class
+    int classes;
+    int fields;
+    int methods;
+    int locals;
+    int statements;
+    int depth;
+    int expr_length;
+
+    // what is known about every generated class, filled in before any method body is written
+    private String[] parent;
+    private List<List<Var>> class_fields;
+    private List<List<Method>> class_methods;
+
+    // scope of the method being written
+    private int current_class;
+    private List<Var> scope;
+
+    public Corpus_generator(long seed)
+    {
+        random = new Random(seed);
+        classes = 100;
+        fields = 4;
+        methods = 5;
+        locals = 10;
+        statements = 20;
+        depth = 3;
+        expr_length = 8;
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        long seed = 1;
+        String output = null;
+        Map<String, Integer> sizes = new HashMap<String, Integer>();
+
+        for(int i = 0; i < args.length; i++)
+        {
+            if(args[i].equals("-seed") && i + 1 < args.length) seed = Long.parseLong(args[++i]);
+            else if(args[i].equals("-o") && i + 1 < args.length) output = args[++i];
+            else if(args[i].startsWith("-") && i + 1 < args.length) sizes.put(args[i].substring(1), Integer.parseInt(args[++i]));
+            else usage();
+        }
+
+        Corpus_generator generator = new Corpus_generator(seed);
+        for(Map.Entry<String, Integer> size: sizes.entrySet())
+        {
+            int n = size.getValue();
+            if(n < 0) usage();
+            switch(size.getKey())
+            {
+                case "classes": generator.classes = n; break;
+                case "fields": generator.fields = n; break;
+                case "methods": generator.methods = n; break;
+                case "locals": generator.locals = n; break;
+                case "statements": generator.statements = n; break;
+                case "depth": generator.depth = n; break;
+                case "expr": generator.expr_length = n; break;
+                default: usage();
+            }
+        }
+
+        Writer out = new BufferedWriter(output == null ? new OutputStreamWriter(System.out) : new FileWriter(output), 1 << 16);
+        generator.generate(out);
+        out.flush();
+        if(output != null) out.close();
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: java Corpus_generator [-seed N] [-classes N] [-fields N] [-methods N] [-locals N] [-statements N] [-depth N] [-expr N] [-o file]");
+        System.exit(1);
+    }
+
+    // a program as a String, for callers that compile it in memory
+    public String generate()
+    {
+        StringWriter out = new StringWriter();
+        try{
+            generate(out);
+        }
+        catch(IOException ex){
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+
+    public void generate(Writer out) throws IOException
+    {
+        declare_classes();
+
+        // the main class is written first, the grammar wants it there
+        StringBuilder s = new StringBuilder();
+        s.append("class Main {\n    public static void main(String[] args) {\n");
+        current_class = -1;
+        scope = new ArrayList<Var>();
+        body(s, 2, "m");
+        s.append("    }\n}\n");
+        out.write(s.toString());
+
+        // the rest one class at a time, so that huge programs are never held in memory as a whole
+        for(int k = 0; k < classes; k++)
+        {
+            s.setLength(0);
+            class_declaration(s, k);
+            out.write(s.toString());
+        }
+    }
+
+    private void declare_classes()
+    {
+        parent = new String[classes];
+        class_fields = new ArrayList<List<Var>>();
+        class_methods = new ArrayList<List<Method>>();
+
+        for(int k = 0; k < classes; k++)
+        {
+            parent[k] = k > 0 && random.nextInt(4) == 0 ? class_name(random.nextInt(k)) : null;
+
+            List<Var> own_fields = new ArrayList<Var>();
+            for(int i = 0; i < fields; i++) own_fields.add(new Var("f" + k + "_" + i, random_type()));
+            class_fields.add(own_fields);
+
+            // method names are unique in the whole program, so subclasses never override by accident
+            List<Method> own_methods = new ArrayList<Method>();
+            for(int i = 0; i < methods; i++)
+            {
+                Method m = new Method("m" + k + "_" + i, random.nextInt(3) == 0 ? "boolean" : "int");
+                int params = random.nextInt(4);
+                for(int p = 0; p < params; p++) m.params.add(new Var("p" + p, random_type()));
+                own_methods.add(m);
+            }
+            class_methods.add(own_methods);
+        }
+    }
+
+    private void class_declaration(StringBuilder s, int k)
+    {
+        s.append("\nclass ").append(class_name(k));
+        if(parent[k] != null) s.append(" extends ").append(parent[k]);
+        s.append(" {\n");
+        for(Var f: class_fields.get(k)) s.append("    ").append(f.type).append(' ').append(f.name).append(";\n");
+
+        for(Method m: class_methods.get(k))
+        {
+            s.append("\n    public ").append(m.type).append(' ').append(m.name).append('(');
+            for(int p = 0; p < m.params.size(); p++)
+            {
+                if(p > 0) s.append(", ");
+                s.append(m.params.get(p).type).append(' ').append(m.params.get(p).name);
+            }
+            s.append(") {\n");
+
+            // fields of the class and of its ancestors are visible, then the parameters
+            current_class = k;
+            scope = new ArrayList<Var>();
+            for(int c = k; c >= 0; c = parent[c] == null ? -1 : class_index(parent[c])) scope.addAll(class_fields.get(c));
+            scope.addAll(m.params);
+
+            body(s, 2, "v");
+            indent(s, 2).append("return ").append(expression(m.type, 4)).append(";\n");
+            s.append("    }\n");
+        }
+        s.append("}\n");
+    }
+
+    // the locals and statements of a method, or of main
+    private void body(StringBuilder s, int level, String prefix)
+    {
+        for(int i = 0; i < locals; i++)
+        {
+            Var v = new Var(prefix + i, random_type());
+            indent(s, level).append(v.type).append(' ').append(v.name).append(";\n");
+            scope.add(v);
+        }
+        s.append('\n');
+
+        int deep = statements == 0 ? -1 : random.nextInt(statements);
+        int long_one = statements == 0 ? -1 : random.nextInt(statements);
+        for(int i = 0; i < statements; i++)
+        {
+            if(i == deep) nested(s, level, depth);
+            else if(i == long_one) long_expression(s, level);
+            else statement(s, level, Math.min(depth, 2));
+        }
+    }
+
+    // a chain of if and while statements nested depth deep
+    private void nested(StringBuilder s, int level, int depth)
+    {
+        if(depth == 0)
+        {
+            statement(s, level, 0);
+            return;
+        }
+
+        if(random.nextBoolean())
+        {
+            indent(s, level).append("while (").append(expression("boolean", 2)).append(") {\n");
+            nested(s, level + 1, depth - 1);
+            indent(s, level).append("}\n");
+        }
+        else
+        {
+            indent(s, level).append("if (").append(expression("boolean", 2)).append(") {\n");
+            nested(s, level + 1, depth - 1);
+            indent(s, level).append("} else {\n");
+            statement(s, level + 1, 0);
+            indent(s, level).append("}\n");
+        }
+    }
+
+    // an int assignment whose right hand side holds expr_length operands, nested to the right
+    private void long_expression(StringBuilder s, int level)
+    {
+        if(expr_length == 0)
+        {
+            statement(s, level, 0);
+            return;
+        }
+
+        Var target = find_var("int");
+        String[] operators = { " + ", " - ", " * " };
+        StringBuilder e = new StringBuilder();
+        for(int i = 0; i < expr_length - 1; i++) e.append(primary("int", 1)).append(operators[random.nextInt(3)]).append('(');
+        e.append(primary("int", 1));
+        for(int i = 0; i < expr_length - 1; i++) e.append(')');
+
+        if(target == null) indent(s, level).append("System.out.println(").append(e).append(");\n");
+        else indent(s, level).append(target.name).append(" = ").append(e).append(";\n");
+    }
+
+    private void statement(StringBuilder s, int level, int depth)
+    {
+        int kind = random.nextInt(depth > 0 ? 8 : 5);
+        switch(kind)
+        {
+            case 0:
+            case 1:
+            {
+                Var v = pick_var();
+                if(v == null) kind = 4;
+                else indent(s, level).append(v.name).append(" = ").append(expression(v.type, 4)).append(";\n");
+                break;
+            }
+            case 2:
+            {
+                String type = random.nextBoolean() ? "int" : "boolean";
+                Var array = find_var(type + "[]");
+                if(array == null) kind = 4;
+                else indent(s, level).append(array.name).append('[').append(expression("int", 2)).append("] = ").append(expression(type, 3)).append(";\n");
+                break;
+            }
+            case 3:
+                indent(s, level).append("System.out.println(").append(expression("int", 4)).append(");\n");
+                break;
+            case 5:
+                indent(s, level).append("if (").append(expression("boolean", 3)).append(")\n");
+                statement(s, level + 1, depth - 1);
+                indent(s, level).append("else\n");
+                statement(s, level + 1, depth - 1);
+                break;
+            case 6:
+                indent(s, level).append("while (").append(expression("boolean", 3)).append(")\n");
+                statement(s, level + 1, depth - 1);
+                break;
+            case 7:
+            {
+                indent(s, level).append("{\n");
+                int count = random.nextInt(4);
+                for(int i = 0; i < count; i++) statement(s, level + 1, depth - 1);
+                indent(s, level).append("}\n");
+                break;
+            }
+            default:
+                break;
+        }
+        if(kind == 4) indent(s, level).append("System.out.println(").append(expression("int", 2)).append(");\n");
+    }
+
+    // an expression of the given type, budget bounds how many operators it may still use
+    private String expression(String type, int budget)
+    {
+        if(budget <= 0) return primary(type, 0);
+
+        switch(type)
+        {
+            case "int":
+                switch(random.nextInt(8))
+                {
+                    case 0: return primary("int", budget - 1) + " + " + primary("int", budget - 1);
+                    case 1: return primary("int", budget - 1) + " - " + primary("int", budget - 1);
+                    case 2: return primary("int", budget - 1) + " * " + primary("int", budget - 1);
+                    case 3: return array_operand("int[]", budget - 1) + "[" + primary("int", budget - 1) + "]";
+                    case 4: return array_operand(random.nextBoolean() ? "int[]" : "boolean[]", budget - 1) + ".length";
+                    case 5:
+                    {
+                        String call = message_send("int", budget - 1);
+                        if(call != null) return call;
+                        break;
+                    }
+                    default:
+                        break;
+                }
+                return primary("int", budget - 1);
+            case "boolean":
+                switch(random.nextInt(7))
+                {
+                    case 0: return clause(budget - 1) + " && " + clause(budget - 1);
+                    case 1: return primary("int", budget - 1) + " < " + primary("int", budget - 1);
+                    case 2: return array_operand("boolean[]", budget - 1) + "[" + primary("int", budget - 1) + "]";
+                    case 3:
+                    {
+                        String call = message_send("boolean", budget - 1);
+                        if(call != null) return call;
+                        break;
+                    }
+                    default:
+                        break;
+                }
+                return clause(budget - 1);
+            default:
+                return primary(type, budget - 1);
+        }
+    }
+
+    private String clause(int budget)
+    {
+        if(random.nextInt(4) == 0) return "!" + primary("boolean", budget);
+        return primary("boolean", budget);
+    }
+
+    private String primary(String type, int budget)
+    {
+        if(budget > 0 && random.nextInt(3) == 0 && (type.equals("int") || type.equals("boolean"))) return "(" + expression(type, budget) + ")";
+
+        // a variable when one of the type is in scope, mostly
+        if(random.nextInt(4) != 0)
+        {
+            Var v = find_var(type);
+            if(v != null) return v.name;
+        }
+
+        switch(type)
+        {
+            case "int": return Integer.toString(random.nextInt(1000));
+            case "boolean": return random.nextBoolean() ? "true" : "false";
+            case "int[]": return "new int[" + expression("int", Math.min(budget, 1)) + "]";
+            case "boolean[]": return "new boolean[" + expression("int", Math.min(budget, 1)) + "]";
+            default:
+                if(current_class >= 0 && type.equals(class_name(current_class)) && random.nextBoolean()) return "this";
+                return "new " + type + "()";
+        }
+    }
+
+    // a call of a method returning type, on an object of any class that has one
+    private String message_send(String type, int budget)
+    {
+        if(classes == 0) return null;
+
+        int k = random.nextInt(classes);
+        List<Method> candidates = new ArrayList<Method>();
+        for(int c = k; c >= 0; c = parent[c] == null ? -1 : class_index(parent[c]))
+        {
+            for(Method m: class_methods.get(c)) if(m.type.equals(type)) candidates.add(m);
+        }
+        if(candidates.isEmpty()) return null;
+
+        Method m = candidates.get(random.nextInt(candidates.size()));
+        StringBuilder call = new StringBuilder(primary(class_name(k), 0)).append('.').append(m.name).append('(');
+        for(int p = 0; p < m.params.size(); p++)
+        {
+            if(p > 0) call.append(", ");
+            call.append(expression(m.params.get(p).type, budget / 2));
+        }
+        return call.append(')').toString();
+    }
+
+    // any variable of the type in scope, null when there is none
+    private Var find_var(String type)
+    {
+        Var v = pick_var(type);
+        if(v != null || scope.isEmpty()) return v;
+
+        int first = random.nextInt(scope.size());
+        for(int i = 0; i < scope.size(); i++)
+        {
+            Var other = scope.get((first + i) % scope.size());
+            if(other.type.equals(type)) return other;
+        }
+        return null;
+    }
+
+    // an allocation cannot be indexed or asked for its length without brackets around it
+    private String array_operand(String type, int budget)
+    {
+        String array = primary(type, budget);
+        return array.startsWith("new ") ? "(" + array + ")" : array;
+    }
+
+    private Var pick_var()
+    {
+        if(scope.isEmpty()) return null;
+        return scope.get(random.nextInt(scope.size()));
+    }
+
+    private Var pick_var(String type)
+    {
+        // a few random probes, scopes are large and mostly hold the four basic types
+        for(int i = 0; i < 4 && !scope.isEmpty(); i++)
+        {
+            Var v = scope.get(random.nextInt(scope.size()));
+            if(v.type.equals(type)) return v;
+        }
+        return null;
+    }
+
+    private String random_type()
+    {
+        // one in eight variables holds an object
+        if(classes > 0 && random.nextInt(8) == 0) return class_name(random.nextInt(classes));
+        return BASIC_TYPES[random.nextInt(BASIC_TYPES.length)];
+    }
+
+    private static String class_name(int k)
+    {
+        return "C" + k;
+    }
+
+    private static int class_index(String name)
+    {
+        return Integer.parseInt(name.substring(1));
+    }
+
+    private static StringBuilder indent(StringBuilder s, int level)
+    {
+        for(int i = 0; i < level; i++) s.append("    ");
+        return s;
+    }
+
+    static class Var
+    {
+        final String name;
+        final String type;
+
+        Var(String name, String type)
+        {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    static class Method
+    {
+        final String name;
+        final String type;
+        final List<Var> params;
+
+        Method(String name, String type)
+        {
+            this.name = name;
+            this.type = type;
+            params = new ArrayList<Var>();
+        }
+    }
+}
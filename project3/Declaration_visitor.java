@@ -0,0 +1,116 @@
+// Collects the declarations of a program into a Symbol_table: every class with its parent, its
+// fields and its methods, and the parameters and locals of every method. Statements and
+// expressions are not walked at all.
+//
+// Declaring a name twice in the same class or method is reported here, and once the whole
+// program is collected the table is frozen, which checks the inheritance and lays out the classes.
+// The semantic check and codegen then both work from the same frozen table. The table interns into
+// the Name_table of the Flat_ast, so a name in the tree has the same id in the table and the later
+// passes look variables up by the values of the nodes.
+//
+// The classes can also be declared one at a time, each from a tree of its own, as long as all the
+// trees share the names of the table.
+class Declaration_visitor
+{
+    final Symbol_table symbols;
+    private Flat_ast ast;
+
+    // the class and the method whose declarations are being collected
+    private Class_info current_class;
+    private Method_info current_method;
+
+    public Declaration_visitor(Symbol_table symbols)
+    {
+        this.symbols = symbols;
+    }
+
+    // collects the declarations of a whole program and returns them frozen
+    public static Symbol_table collect(Flat_ast ast) throws Exception
+    {
+        Declaration_visitor declarations = new Declaration_visitor(new Symbol_table(ast.names));
+        int goal = ast.root();
+        for(int i = 0; i < ast.count(goal); i++) declarations.declare(ast, ast.child(goal, i));
+        declarations.symbols.freeze();
+        return declarations.symbols;
+    }
+
+    // collects the declarations of class n of ast, the main class or any other
+    public void declare(Flat_ast ast, int n) throws ParseException
+    {
+        this.ast = ast;
+        if(ast.kind(n) == Flat_ast.MAIN_CLASS) main_class(n);
+        else class_declaration(n);
+    }
+
+    // class Identifier { public static void main ( String [ ] Identifier ) { VarDeclaration* Statement* } }
+    private void main_class(int n) throws ParseException
+    {
+        current_class = declare_class(ast.name(n), null);
+        current_method = symbols.declare_method(current_class, "main", "void");
+        symbols.declare_param(current_method, ast.name(ast.child(n, 0)), "String[]");
+
+        var_declarations(ast.child(n, 1));
+
+        current_method = null;
+        current_class = null;
+    }
+
+    // class Identifier [ extends Identifier ] { VarDeclaration* MethodDeclaration* }
+    private void class_declaration(int n) throws ParseException
+    {
+        // the parent may be declared further down, freeze() checks that it exists
+        String parent = ast.count(n) > 2 ? ast.name(ast.child(n, 2)) : null;
+        current_class = declare_class(ast.name(n), parent);
+
+        var_declarations(ast.child(n, 0));
+
+        int methods = ast.child(n, 1);
+        for(int i = 0; i < ast.count(methods); i++) method_declaration(ast.child(methods, i));
+
+        current_class = null;
+    }
+
+    // Type Identifier ;
+    private void var_declarations(int list) throws ParseException
+    {
+        for(int i = 0; i < ast.count(list); i++)
+        {
+            int n = ast.child(list, i);
+            String type = ast.name(ast.child(n, 0));
+            String name = ast.name(n);
+
+            // inside a method it is a local, otherwise a field of the class
+            Var_info declared = current_method != null ? symbols.declare_local(current_method, name, type) : symbols.declare_field(current_class, name, type);
+            if(declared == null) throw new ParseException("Semantic Error, " + name + " has already been declared");
+        }
+    }
+
+    // public Type Identifier ( FormalParameterList? ) { VarDeclaration* Statement* return Expression ; }
+    private void method_declaration(int n) throws ParseException
+    {
+        String name = ast.name(n);
+
+        // overriding an inherited method is fine, declaring the same one twice in a class is not
+        current_method = symbols.declare_method(current_class, name, ast.name(ast.child(n, 0)));
+        if(current_method == null) throw new ParseException("Semantic Error, function " + name + " has already been declared");
+
+        int params = ast.child(n, 1);
+        for(int i = 0; i < ast.count(params); i++)
+        {
+            int param = ast.child(params, i);
+            String param_name = ast.name(param);
+            if(symbols.declare_param(current_method, param_name, ast.name(ast.child(param, 0))) == null) throw new ParseException("Semantic Error, " + param_name + " has already been declared");
+        }
+
+        var_declarations(ast.child(n, 2));
+
+        current_method = null;
+    }
+
+    private Class_info declare_class(String name, String parent) throws ParseException
+    {
+        Class_info info = symbols.declare_class(name, parent);
+        if(info == null) throw new ParseException("Semantic Error, Class: " + name + " already exists");
+        return info;
+    }
+}
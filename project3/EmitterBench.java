@@ -0,0 +1,100 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+// Compares the old way of writing IR (String concatenation into an unbuffered FileWriter)
+// with IR_Emitter on a large amount of IR shaped like what LLVM_Visitor produces.
+//
+// Usage: java EmitterBench [statements] [rounds]
+public class EmitterBench {
+
+    public static void main(String[] args) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        File out = File.createTempFile("emitter-bench", ".ll");
+        out.deleteOnExit();
+
+        System.out.println("statements per round: " + statements);
+        for(int round = 0; round < rounds; round++)
+        {
+            // the first round only warms up the JIT
+            String tag = round == 0 ? " (warm-up)" : "";
+            measure("FileWriter" + tag, () -> write_with_file_writer(out.getPath(), statements));
+            measure("IR_Emitter" + tag, () -> write_with_emitter(out.getPath(), statements));
+        }
+    }
+
+    interface Workload
+    {
+        long run() throws IOException;
+    }
+
+    private static void measure(String name, Workload workload) throws IOException
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long bytes = workload.run();
+        long time = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        System.out.printf("%-24s %8.2f ms %10.2f MB/s %10.2f MB allocated%n", name, time / 1e6, bytes / 1e6 / (time / 1e9), allocated / 1e6);
+    }
+
+    // what LLVM_Visitor did before: every instruction is concatenated and written on its own
+    private static long write_with_file_writer(String path, int statements) throws IOException
+    {
+        long bytes = 0;
+        int reg_counter = 0;
+        FileWriter ll_writer = new FileWriter(path);
+        for(int i = 0; i < statements; i++)
+        {
+            String a_reg = "%" + Integer.toString(++reg_counter);
+            String line = "\t" + a_reg + " = load i32, i32* %a\n";
+            ll_writer.write(line);
+            bytes += line.length();
+
+            String b_reg = "%" + Integer.toString(++reg_counter);
+            line = "\t" + b_reg + " = load i32, i32* %b\n";
+            ll_writer.write(line);
+            bytes += line.length();
+
+            String res_reg = "%" + Integer.toString(++reg_counter);
+            line = "\t" + res_reg + " = add i32 " + a_reg + ", " + b_reg + "\n";
+            ll_writer.write(line);
+            bytes += line.length();
+
+            line = "\tstore i32 " + res_reg + ", i32* %a\n";
+            ll_writer.write(line);
+            bytes += line.length();
+        }
+        ll_writer.close();
+        return bytes;
+    }
+
+    // the same instructions appended through IR_Emitter
+    private static long write_with_emitter(String path, int statements) throws IOException
+    {
+        int reg_counter = 0;
+        IR_Emitter ll_writer = new IR_Emitter(path);
+        for(int i = 0; i < statements; i++)
+        {
+            int a_reg = ++reg_counter;
+            ll_writer.write_char('\t').write_reg(a_reg).write(" = load i32, i32* %a\n");
+
+            int b_reg = ++reg_counter;
+            ll_writer.write_char('\t').write_reg(b_reg).write(" = load i32, i32* %b\n");
+
+            int res_reg = ++reg_counter;
+            ll_writer.write_char('\t').write_reg(res_reg).write(" = add i32 ").write_reg(a_reg).write(", ").write_reg(b_reg).write_char('\n');
+
+            ll_writer.write("\tstore i32 ").write_reg(res_reg).write(", i32* %a\n");
+        }
+        ll_writer.close();
+        return ll_writer.bytes_written();
+    }
+}
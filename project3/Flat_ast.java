@@ -0,0 +1,182 @@
+import syntaxtree.*;
+
+import java.util.*;
+
+// A program as a flat array of nodes, lowered from the syntax tree the parser builds.
+//
+// A node is an index. What it is, its int value and where its children start are kept in arrays
+// of their own, and the children of all the nodes follow each other in one more array. Nodes are
+// added children first, so the children of node i end where the children of node i + 1 start,
+// and the last node added is the root, the Goal when a whole program is lowered. Punctuation and
+// the productions that only choose between others are not kept, so a node is there for every
+// declaration, statement and expression and for nothing else, and walking the tree is reading
+// ints out of four arrays.
+//
+// The value of a node that names something is the id of the name in names, the value of an integer
+// literal is the literal itself. Trees lowered class by class can share one Name_table, and then a
+// name has the same id in all of them.
+class Flat_ast
+{
+    // the whole program: the main class, then the other classes
+    static final int GOAL = 0;
+    // value the name of the class: the name of the parameter of main, the variables, the statements
+    static final int MAIN_CLASS = 1;
+    // value the name of the class: the fields, the methods, and the name of the parent if it has one
+    static final int CLASS = 2;
+    // value the name of the variable: its type
+    static final int VAR = 3;
+    // value the name of the method: the return type, the parameters, the variables, the statements, what it returns
+    static final int METHOD = 4;
+    // value the name of the type, a leaf
+    static final int TYPE = 5;
+    // value a name that is not a variable, a leaf
+    static final int NAME = 6;
+    // the nodes listed, declarations or statements
+    static final int LIST = 7;
+
+    // statements, an assignment's value is the name of the variable assigned to
+    static final int BLOCK = 8;
+    // the value assigned
+    static final int ASSIGN = 9;
+    // the index and the value assigned
+    static final int ARRAY_ASSIGN = 10;
+    // the condition, the statement run when it holds and the one run when it does not
+    static final int IF = 11;
+    // the condition and the body
+    static final int WHILE = 12;
+    // the value printed
+    static final int PRINT = 13;
+
+    // expressions with two operands, left then right
+    static final int AND = 14;
+    static final int LESS = 15;
+    static final int PLUS = 16;
+    static final int MINUS = 17;
+    static final int TIMES = 18;
+    // the array and the index
+    static final int ARRAY_LOOKUP = 19;
+    // the array
+    static final int ARRAY_LENGTH = 20;
+    // value the name of the method: the object, then the arguments
+    static final int CALL = 21;
+    // value the literal, a leaf
+    static final int INTEGER = 22;
+    static final int TRUE = 23;
+    static final int FALSE = 24;
+    // value the name of the variable, a leaf
+    static final int IDENTIFIER = 25;
+    static final int THIS = 26;
+    // the size of the array
+    static final int NEW_INT_ARRAY = 27;
+    static final int NEW_BOOLEAN_ARRAY = 28;
+    // value the name of the class, a leaf
+    static final int NEW = 29;
+    // the clause negated
+    static final int NOT = 30;
+
+    private int[] kinds;
+    private int[] values;
+    // where the children of every node start in children, and where the ones of the next node would
+    private int[] firsts;
+    private int[] children;
+    private int size;
+
+    // the names the values of the nodes stand for
+    final Name_table names;
+
+    public Flat_ast(int capacity, Name_table names)
+    {
+        kinds = new int[capacity];
+        values = new int[capacity];
+        firsts = new int[capacity + 1];
+        children = new int[capacity];
+        size = 0;
+        this.names = names;
+    }
+
+    // lowers the tree of a whole program
+    public static Flat_ast lower(Goal root) throws Exception
+    {
+        return lower(root, new Name_table());
+    }
+
+    // lowers a tree interning its names into names, its root is the root of the Flat_ast
+    public static Flat_ast lower(Node root, Name_table names) throws Exception
+    {
+        Lowering_visitor lowering = new Lowering_visitor(names);
+        root.accept(lowering, null);
+        lowering.ast.trim();
+        return lowering.ast;
+    }
+
+    // adds a node whose children are count ints of stack ending at top, and returns it
+    public int add(int kind, int value, int[] stack, int top, int count)
+    {
+        if(size == kinds.length)
+        {
+            kinds = Arrays.copyOf(kinds, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+            firsts = Arrays.copyOf(firsts, 2 * size + 1);
+        }
+
+        int first = firsts[size];
+        if(first + count > children.length) children = Arrays.copyOf(children, Math.max(2 * children.length, first + count));
+        System.arraycopy(stack, top - count, children, first, count);
+
+        kinds[size] = kind;
+        values[size] = value;
+        firsts[size + 1] = first + count;
+        return size++;
+    }
+
+    // drops the room kept for nodes that were never added, the tree does not grow once lowered
+    private void trim()
+    {
+        kinds = Arrays.copyOf(kinds, size);
+        values = Arrays.copyOf(values, size);
+        firsts = Arrays.copyOf(firsts, size + 1);
+        children = Arrays.copyOf(children, firsts[size]);
+    }
+
+    // the id of a name, a new one the first time it is seen
+    public int intern(String name)
+    {
+        return names.intern(name);
+    }
+
+    public int root()
+    {
+        return size - 1;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int kind(int node)
+    {
+        return kinds[node];
+    }
+
+    public int value(int node)
+    {
+        return values[node];
+    }
+
+    // the name the value of the node stands for
+    public String name(int node)
+    {
+        return names.name(values[node]);
+    }
+
+    public int count(int node)
+    {
+        return firsts[node + 1] - firsts[node];
+    }
+
+    public int child(int node, int i)
+    {
+        return children[firsts[node] + i];
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Buffered sink for the generated IR.
+// Fragments, register numbers and labels are appended as bytes into one reusable buffer
+// which is handed to the file through a FileChannel only when it fills up or on close.
+class IR_Emitter implements Closeable
+{
+    // default size of the buffer, large enough that a typical file is written in a handful of syscalls
+    static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // channel of the output file, null when the IR is only measured and not kept
+    private final FileChannel channel;
+    // the reusable byte buffer and how much of it is filled
+    private final byte[] buffer;
+    private final ByteBuffer wrapper;
+    private int count;
+    // bytes of IR handed to the channel so far
+    private long flushed;
+    // scratch space for the digits of a number
+    private final byte[] digits;
+    // where the time spent writing to the file is charged, if anywhere
+    Compile_timings timings;
+
+    public IR_Emitter(String filename) throws IOException
+    {
+        this(FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), DEFAULT_CAPACITY);
+    }
+
+    public IR_Emitter(FileChannel channel, int capacity)
+    {
+        this.channel = channel;
+        buffer = new byte[capacity];
+        wrapper = ByteBuffer.wrap(buffer);
+        count = 0;
+        flushed = 0;
+        digits = new byte[11];
+    }
+
+    // appends a fragment of IR
+    public IR_Emitter write(String s) throws IOException
+    {
+        int length = s.length();
+        for(int i = 0; i < length; i++)
+        {
+            char c = s.charAt(i);
+
+            // identifiers may contain non ASCII letters, those go through the UTF-8 encoder
+            if(c >= 0x80) return write_bytes(s.substring(i).getBytes(StandardCharsets.UTF_8));
+
+            if(count == buffer.length) flush_buffer();
+            buffer[count++] = (byte) c;
+        }
+        return this;
+    }
+
+    // appends a single ASCII character
+    public IR_Emitter write_char(char c) throws IOException
+    {
+        if(c >= 0x80) return write(String.valueOf(c));
+
+        if(count == buffer.length) flush_buffer();
+        buffer[count++] = (byte) c;
+        return this;
+    }
+
+    // appends the decimal digits of a number without going through a String
+    public IR_Emitter write_int(int n) throws IOException
+    {
+        if(n == Integer.MIN_VALUE) return write(Integer.toString(n));
+        if(n < 0)
+        {
+            write_char('-');
+            n = -n;
+        }
+
+        int i = digits.length;
+        do
+        {
+            digits[--i] = (byte) ('0' + n % 10);
+            n /= 10;
+        }
+        while(n != 0);
+
+        return write_bytes(digits, i, digits.length - i);
+    }
+
+    // appends a numbered temporary register, %<n>
+    public IR_Emitter write_reg(int n) throws IOException
+    {
+        return write_char('%').write_int(n);
+    }
+
+    // appends an operand the way an instruction refers to it
+    public IR_Emitter write(Operand o) throws IOException
+    {
+        switch(o.kind)
+        {
+            case CONSTANT:
+                if(o.type == Operand.IR_type.I1) return write(o.number == 0 ? "false" : "true");
+                return o.type.is_pointer() ? write("null") : write_int(o.number);
+            case VALUE: return write_reg(o.number);
+            default: return write_char('%').write(o.var.name);
+        }
+    }
+
+    // appends an IR type
+    public IR_Emitter write(Operand.IR_type type) throws IOException
+    {
+        return write(type.name);
+    }
+
+    // appends the start of a basic block, <label><n>:
+    public IR_Emitter write_label(String label, int n) throws IOException
+    {
+        return write_char('\n').write(label).write_int(n).write(":\n");
+    }
+
+    private IR_Emitter write_bytes(byte[] b) throws IOException
+    {
+        return write_bytes(b, 0, b.length);
+    }
+
+    private IR_Emitter write_bytes(byte[] b, int off, int len) throws IOException
+    {
+        while(len > 0)
+        {
+            if(count == buffer.length) flush_buffer();
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+        return this;
+    }
+
+    // hands the filled part of the buffer to the channel
+    private void flush_buffer() throws IOException
+    {
+        if(channel != null)
+        {
+            if(timings != null) timings.enter(Compile_timings.WRITE);
+            wrapper.clear().limit(count);
+            while(wrapper.hasRemaining()) channel.write(wrapper);
+            if(timings != null) timings.exit();
+        }
+        flushed += count;
+        count = 0;
+    }
+
+    // total bytes of IR emitted so far
+    public long bytes_written()
+    {
+        return flushed + count;
+    }
+
+    public void flush() throws IOException
+    {
+        flush_buffer();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try{
+            flush_buffer();
+        }
+        finally{
+            if(channel != null) channel.close();
+        }
+    }
+
+    // drops everything emitted, what was flushed already included, and closes the file empty
+    public void discard() throws IOException
+    {
+        count = 0;
+        flushed = 0;
+        if(channel == null) return;
+
+        try{
+            channel.truncate(0);
+        }
+        finally{
+            channel.close();
+        }
+    }
+}
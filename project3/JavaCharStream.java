@@ -86,9 +86,11 @@ class JavaCharStream
 
   protected void ExpandBuff(boolean wrapAround)
   {
-    char[] newbuffer = new char[bufsize + 2048];
-    int newbufline[] = new int[bufsize + 2048];
-    int newbufcolumn[] = new int[bufsize + 2048];
+    // doubling keeps the copies linear in the length of the longest token, not quadratic
+    int newsize = 2 * bufsize;
+    char[] newbuffer = new char[newsize];
+    int newbufline[] = new int[newsize];
+    int newbufcolumn[] = new int[newsize];
 
     try
     {
@@ -127,7 +129,7 @@ class JavaCharStream
       throw new Error(t.getMessage());
     }
 
-    available = (bufsize += 2048);
+    available = bufsize = newsize;
     tokenBegin = 0;
   }
 
@@ -391,6 +393,13 @@ class JavaCharStream
       bufpos += bufsize;
   }
 
+/** Constructor for subclasses that keep their own input and allocate no buffers. */
+  protected JavaCharStream(int startline, int startcolumn)
+  {
+    line = startline;
+    column = startcolumn - 1;
+  }
+
 /** Constructor. */
   public JavaCharStream(java.io.Reader dstream,
                  int startline, int startcolumn, int buffersize)
@@ -426,14 +435,15 @@ class JavaCharStream
     line = startline;
     column = startcolumn - 1;
 
-    if (buffer == null || buffersize != buffer.length)
+    // buffers from an earlier input are kept when they are big enough, whatever they grew to
+    if (buffer == null || buffersize > buffer.length)
     {
-      available = bufsize = buffersize;
       buffer = new char[buffersize];
       bufline = new int[buffersize];
       bufcolumn = new int[buffersize];
       nextCharBuf = new char[4096];
     }
+    available = bufsize = buffer.length;
     prevCharIsLF = prevCharIsCR = false;
     tokenBegin = inBuf = maxNextCharInd = 0;
     nextCharInd = bufpos = -1;
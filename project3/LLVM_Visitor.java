@@ -0,0 +1,833 @@
+import java.util.*;
+
+// Generates the IR of a program, walking the Flat_ast the semantic check has passed
+//
+// The code is built in SSA form as it is written. Parameters and locals get no stack slots: the
+// visitor keeps the operand each of them holds at the current point of the code, and an assignment
+// only replaces it. Where the arms of an if meet, a phi merges every variable the arms left
+// different. A while cannot know what its body does to a variable before the body is written, so
+// the variables its body assigns are found first and get a phi at the head of the loop. The value
+// coming back from the body is named in a latch block the body ends in, which the phi refers to
+// ahead of it. Fields still live in memory. The length of an array is an operand that goes along
+// with it, and gets a phi of its own wherever the array does and the lengths may differ.
+// Only main is compiled into a function so far, a class with fields or methods is reported as
+// not compiled yet.
+//
+// Constants are propagated on the way. An operand is either a CONSTANT, whose value is known, or
+// anything else, whose value is not: arithmetic, comparisons and casts on constants are folded to
+// a constant and nothing is written for them. A local given a constant holds it until an if joins
+// it with something else or a loop assigns it, where it gets a phi and is no longer known.
+// An if whose condition is known is only the arm it takes, and a while whose condition is false on
+// the way in is left out, so no code is written that could never run.
+class LLVM_Visitor {
+
+    // classes, methods and variables of the program, collected by the declaration pass
+    Symbol_table symbols;
+    // the scopes of the current class and function
+    Scope scope;
+    // checks whether the variable is inside a while/if condition or not
+    boolean in_cond;
+    // counter for the temporary registers of the current function
+    int reg_counter;
+    // counter for the if and while labels of the current function, folded conditions take no registers
+    int label_counter;
+    // buffered sink for the generated IR
+    IR_Emitter ll_writer;
+    // lengths of the arrays stored in fields, as far as they are known in the current function
+    // it only lives while the function is generated, so it never holds more than one function's fields
+    Map<Var_info, Operand> array_lengths;
+    // the parameters and locals of the current function, and what each of them holds, by index
+    private Var_info[] variables;
+    private Operand[] values;
+    // the basic block the code is being written into, where a branch written now comes from
+    private Block block;
+    // how many times the current function has asked for the length of an array
+    private int length_reads;
+    // the program, or the class being generated, its names have the same ids in symbols
+    private Flat_ast ast;
+
+    public LLVM_Visitor(String filename, Flat_ast ast, Symbol_table symbols) throws Exception
+    {
+        this(new IR_Emitter(filename), ast, symbols);
+    }
+
+    // writes the IR to an emitter the caller owns, the benchmarks use one that only counts bytes
+    // the ast is null when the classes are handed over one at a time, see walk(Flat_ast, int)
+    public LLVM_Visitor(IR_Emitter emitter, Flat_ast ast, Symbol_table symbols)
+    {
+        this.ast = ast;
+        this.symbols = symbols;
+        scope = new Scope(symbols);
+        reg_counter = 0;
+        ll_writer = emitter;
+        array_lengths = null;
+        variables = null;
+        values = null;
+        block = null;
+    }
+
+    // generates the whole program
+    public void walk() throws Exception {
+
+        header();
+
+        int goal = ast.root();
+        for(int i = 0; i < ast.count(goal); i++) walk(ast, ast.child(goal, i));
+    }
+
+    // the declarations every module starts with, written once before the first class
+    public void header() throws Exception {
+
+        // to avoid warnings
+        ll_writer.write("target triple = \"x86_64-pc-linux-gnu\"\n");
+
+        // declaration of print function
+        ll_writer.write("declare i32 @printf(i8*, ...)\n");
+
+        // declaration of calloc
+        ll_writer.write("declare i8* @calloc(i32, i32)\n");
+
+        // declaration of string
+        ll_writer.write("@.str = constant [4 x i8] c\"%d\\0A\\00\"\n\n");
+    }
+
+    // generates class n of ast, the main class or any other
+    public void walk(Flat_ast ast, int n) throws Exception {
+
+        this.ast = ast;
+        if(ast.kind(n) == Flat_ast.MAIN_CLASS) main_class(n);
+        else class_declaration(n);
+    }
+
+    // class Identifier { public static void main ( String [ ] Identifier ) { VarDeclaration* Statement* } }
+    private void main_class(int n) throws Exception {
+
+        Class_info info = symbols.class_of(ast.value(n));
+        scope.open_class(info);
+        Method_info main = symbols.own_method(info, "main");
+        scope.open_method(main);
+        open_function(main);
+
+        // definition of main, its locals live in registers
+        ll_writer.write("define void @main() {\n");
+
+        statements(ast.child(n, 2));
+
+        // main is void so it returns void
+        ll_writer.write("\tret void\n}\n");
+
+        close_function();
+        scope.close_class();
+    }
+
+    // class Identifier [ extends Identifier ] { VarDeclaration* MethodDeclaration* }
+    private void class_declaration(int n) throws Exception {
+
+        // objects have no layout and methods no define yet, whatever was written for them would be outside any function
+        // a class with neither has nothing to generate
+        if(ast.count(ast.child(n, 0)) > 0) throw new UnsupportedOperationException("fields are not compiled yet");
+        if(ast.count(ast.child(n, 1)) > 0) throw new UnsupportedOperationException("methods are not compiled yet");
+    }
+
+    // the statements of a block or a list, in order
+    private void statements(int n) throws Exception {
+
+        for(int i = 0; i < ast.count(n); i++) statement(ast.child(n, i));
+    }
+
+    private void statement(int n) throws Exception {
+
+        switch(ast.kind(n))
+        {
+            case Flat_ast.BLOCK:
+                statements(n);
+                break;
+            case Flat_ast.ASSIGN:
+                assignment(n);
+                break;
+            case Flat_ast.ARRAY_ASSIGN:
+                array_assignment(n);
+                break;
+            case Flat_ast.IF:
+                if_statement(n);
+                break;
+            case Flat_ast.WHILE:
+                while_statement(n);
+                break;
+            case Flat_ast.PRINT:
+                print_statement(n);
+                break;
+            default:
+                throw new IllegalStateException("node " + n + " is not a statement");
+        }
+    }
+
+    // Identifier = Expression ;
+    private void assignment(int n) throws Exception {
+
+        Var_info v = lookup(n);
+        Operand right = expression(ast.child(n, 0));
+
+        // variables hold booleans as bytes
+        Operand value = to_byte(load(right));
+
+        // a parameter or a local is whatever was assigned last, the array in it keeps its length
+        if(v.kind != Var_info.FIELD)
+        {
+            values[v.index] = value;
+            return;
+        }
+
+        // store is assignment
+        Operand left = Operand.slot(v);
+        ll_writer.write("\tstore ").write(value.type).write(" ").write(value).write(", ").write(left.type.pointer).write(" ").write(left).write("\n");
+
+        // the length of the array goes with it into the field, for left.length to find later
+        if(value.length != null) array_lengths.put(v, value.length);
+        else array_lengths.remove(v);
+    }
+
+    // Identifier [ Expression ] = Expression ;
+    private void array_assignment(int n) throws Exception {
+
+        Operand array = variable(n);
+        Operand index = expression(ast.child(n, 0));
+        Operand right = expression(ast.child(n, 1));
+
+        // Loading the array, the index and the value
+        Operand array_reg = load(array);
+        Operand index_reg = load(index);
+        Operand value = to_byte(load(right));
+
+        // Loading the memory space of the array within the given index
+        Operand element = element_pointer(array_reg, index_reg);
+        ll_writer.write("\tstore ").write(value.type).write(" ").write(value).write(", ").write(array_reg.type).write(" ").write(element).write("\n");
+    }
+
+    // if ( Expression ) Statement else Statement
+    private void if_statement(int n) throws Exception {
+
+        // Looking at the condition, branching needs it as a bit
+        in_cond = true;
+        Operand condition = to_bit(load(expression(ast.child(n, 0))));
+
+        // a known condition takes one arm, which goes on in the current block
+        if(condition.is_constant())
+        {
+            in_cond = false;
+            statement(ast.child(n, condition.number != 0 ? 1 : 2));
+            return;
+        }
+
+        // the if, else and continue labels are numbered apart from the registers
+        int label = ++label_counter;
+
+        // Writing the condition
+        ll_writer.write("\tbr i1 ").write(condition).write(", label %if").write_int(label).write(", label %else").write_int(label).write("\n");
+        in_cond = false;
+        // We stopped processing the condition
+
+        // both arms start from what the variables hold before the if
+        Operand[] before = values.clone();
+
+        // These are the if statements
+        begin_block("if", label);
+
+        statement(ast.child(n, 1));
+        Operand[] if_values = values;
+        Block if_end = block;
+
+        // End if
+        ll_writer.write("\tbr label %continue").write_int(label).write("\n");
+
+        // These are the else statements
+        values = before;
+        begin_block("else", label);
+
+        statement(ast.child(n, 2));
+        Block else_end = block;
+
+        // End else
+        ll_writer.write("\tbr label %continue").write_int(label).write("\n");
+
+        // End if/else, a variable the arms left different is either of the two
+        begin_block("continue", label);
+        for(int i = 0; i < values.length; i++)
+        {
+            if(!if_values[i].same(values[i])) values[i] = phi(if_values[i], if_end, values[i], else_end);
+        }
+    }
+
+    // while ( Expression ) Statement
+    private void while_statement(int n) throws Exception {
+
+        // a loop that is false on the way in never runs its body
+        Operand entry = known(ast.child(n, 0));
+        if(entry != null && entry.number == 0) return;
+
+        // the while, loop, latch and break labels are numbered apart from the registers
+        int label = ++label_counter;
+        Block before = block;
+        ll_writer.write("\tbr label %while").write_int(label).write("\n");
+        begin_block("while", label);
+
+        // a variable the body assigns is what it held before the loop or what the last turn left in it
+        // an array known to have a length on the way in keeps one, which is a phi of the lengths in the same way
+        boolean[] assigned = new boolean[values.length];
+        boolean latch = mark_assigned(ast.child(n, 1), assigned);
+        for(int i = 0; i < values.length; i++)
+        {
+            if(!assigned[i]) continue;
+
+            reg_counter++;
+            ll_writer.write_char('\t').write_reg(reg_counter).write(" = phi ").write(values[i].type).write(" [ ").write(values[i]).write(", ");
+            write_block(before).write(" ], [ ");
+            write_latch_value(variables[i], label, false).write(", %latch").write_int(label).write(" ]\n");
+            int value = reg_counter;
+
+            Operand length = null;
+            if(values[i].length != null)
+            {
+                reg_counter++;
+                ll_writer.write_char('\t').write_reg(reg_counter).write(" = phi i32 [ ").write(values[i].length).write(", ");
+                write_block(before).write(" ], [ ");
+                write_latch_value(variables[i], label, true).write(", %latch").write_int(label).write(" ]\n");
+                length = Operand.value(Operand.IR_type.I32, reg_counter);
+            }
+            values[i] = Operand.value(values[i].type, value, length);
+        }
+        Operand[] header = values.clone();
+        int reads = length_reads;
+
+        // Looking at the condition, branching needs it as a bit
+        in_cond = true;
+        Operand condition = to_bit(load(expression(ast.child(n, 0))));
+
+        // Writing the condition, a loop that is always true goes straight into its body
+        if(condition.is_constant() && condition.number != 0) ll_writer.write("\tbr label %loop").write_int(label).write("\n");
+        else ll_writer.write("\tbr i1 ").write(condition).write(", label %loop").write_int(label).write(", label %break").write_int(label).write("\n");
+        in_cond = false;
+        // We stopped processing the condition
+
+        // This is inside the loop
+        begin_block("loop", label);
+
+        statement(ast.child(n, 1));
+
+        // Continuing the loop, through the latch that names what the body leaves in the variables
+        if(latch)
+        {
+            ll_writer.write("\tbr label %latch").write_int(label).write("\n");
+            Block body_end = block;
+            begin_block("latch", label);
+            for(int i = 0; i < values.length; i++)
+            {
+                if(!assigned[i]) continue;
+
+                ll_writer.write_char('\t');
+                write_latch_value(variables[i], label, false).write(" = phi ").write(values[i].type).write(" [ ").write(values[i]).write(", ");
+                write_block(body_end).write(" ]\n");
+
+                if(header[i].length == null) continue;
+
+                // the body may leave an array whose length is not known, the length phi at the head was then a guess
+                // it can only stand if nothing in the loop looked at a length, and the array has none after the loop
+                Operand length = values[i].length;
+                if(length == null)
+                {
+                    if(length_reads != reads) throw new UnsupportedOperationException("the length of the array is not known at compile time");
+                    length = Operand.zero(Operand.IR_type.I32);
+                    header[i] = Operand.value(header[i].type, header[i].number);
+                }
+                ll_writer.write_char('\t');
+                write_latch_value(variables[i], label, true).write(" = phi i32 [ ").write(length).write(", ");
+                write_block(body_end).write(" ]\n");
+            }
+        }
+        ll_writer.write("\tbr label %while").write_int(label).write("\n");
+
+        // Outside the loop, the variables hold what they held when the condition was false
+        values = header;
+        begin_block("break", label);
+    }
+
+    // the constant expression n folds to with what the variables hold now, null when it is not known
+    // it writes nothing, so a condition can be looked at before deciding whether to write any code for it
+    private Operand known(int n) {
+
+        switch(ast.kind(n))
+        {
+            case Flat_ast.INTEGER:
+                return Operand.constant(Operand.IR_type.I32, ast.value(n));
+            case Flat_ast.TRUE:
+                return Operand.TRUE;
+            case Flat_ast.FALSE:
+                return Operand.FALSE;
+            case Flat_ast.IDENTIFIER:
+                Var_info v = lookup(n);
+                if(v.kind == Var_info.FIELD || !values[v.index].is_constant()) return null;
+                return values[v.index];
+            case Flat_ast.NOT:
+                Operand clause = known(ast.child(n, 0));
+                if(clause == null) return null;
+                return clause.number == 0 ? Operand.TRUE : Operand.FALSE;
+            case Flat_ast.AND:
+                Operand left = known(ast.child(n, 0));
+                Operand right = known(ast.child(n, 1));
+                if(left != null && left.number == 0 || right != null && right.number == 0) return Operand.FALSE;
+                return left != null && right != null ? Operand.TRUE : null;
+            case Flat_ast.LESS:
+            case Flat_ast.PLUS:
+            case Flat_ast.MINUS:
+            case Flat_ast.TIMES:
+                Operand a = known(ast.child(n, 0));
+                Operand b = known(ast.child(n, 1));
+                if(a == null || b == null) return null;
+                if(ast.kind(n) == Flat_ast.LESS) return a.number < b.number ? Operand.TRUE : Operand.FALSE;
+                String op = ast.kind(n) == Flat_ast.PLUS ? "add" : ast.kind(n) == Flat_ast.MINUS ? "sub" : "mul";
+                return Operand.constant(Operand.IR_type.I32, fold(op, a.number, b.number));
+            case Flat_ast.ARRAY_LENGTH:
+                // the length an array was allocated with, as array_length reads it
+                int array = ast.child(n, 0);
+                Operand length = null;
+                if(ast.kind(array) == Flat_ast.NEW_INT_ARRAY || ast.kind(array) == Flat_ast.NEW_BOOLEAN_ARRAY) length = known(ast.child(array, 0));
+                else if(ast.kind(array) == Flat_ast.IDENTIFIER)
+                {
+                    Var_info w = lookup(array);
+                    length = w.kind == Var_info.FIELD ? array_lengths.get(w) : values[w.index].length;
+                }
+                return length != null && length.is_constant() ? length : null;
+            default:
+                return null;
+        }
+    }
+
+    // marks the parameters and locals statement n assigns, true when there is any
+    private boolean mark_assigned(int n, boolean[] assigned) {
+
+        switch(ast.kind(n))
+        {
+            case Flat_ast.BLOCK:
+                boolean any = false;
+                for(int i = 0; i < ast.count(n); i++) any |= mark_assigned(ast.child(n, i), assigned);
+                return any;
+            case Flat_ast.ASSIGN:
+                Var_info v = lookup(n);
+                if(v.kind == Var_info.FIELD) return false;
+                assigned[v.index] = true;
+                return true;
+            case Flat_ast.IF:
+                return mark_assigned(ast.child(n, 1), assigned) | mark_assigned(ast.child(n, 2), assigned);
+            case Flat_ast.WHILE:
+                return mark_assigned(ast.child(n, 1), assigned);
+            default:
+                return false;
+        }
+    }
+
+    // System.out.println ( Expression ) ;
+    private void print_statement(int n) throws Exception {
+
+        // Loading the variable in a non pointer register
+        Operand value = load(expression(ast.child(n, 0)));
+
+        // Printing the integer
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = call i32 (i8*, ...) @printf(i8* getelementptr inbounds ([4 x i8], [4 x i8]* @.str, i64 0, i64 0), i32 ").write(value).write(")\n");
+    }
+
+    private Operand expression(int n) throws Exception {
+
+        switch(ast.kind(n))
+        {
+            case Flat_ast.AND:
+                return and_expression(n);
+            case Flat_ast.LESS:
+                return compare_expression(n);
+            case Flat_ast.PLUS:
+                return arithmetic("add", expression(ast.child(n, 0)), expression(ast.child(n, 1)));
+            case Flat_ast.MINUS:
+                return arithmetic("sub", expression(ast.child(n, 0)), expression(ast.child(n, 1)));
+            case Flat_ast.TIMES:
+                return arithmetic("mul", expression(ast.child(n, 0)), expression(ast.child(n, 1)));
+            case Flat_ast.ARRAY_LOOKUP:
+                return array_lookup(n);
+            case Flat_ast.ARRAY_LENGTH:
+                return array_length(n);
+            case Flat_ast.CALL:
+                throw new UnsupportedOperationException("method calls are not compiled yet");
+            case Flat_ast.INTEGER:
+                return Operand.constant(Operand.IR_type.I32, ast.value(n));
+            case Flat_ast.TRUE:
+                return Operand.TRUE;
+            case Flat_ast.FALSE:
+                return Operand.FALSE;
+            case Flat_ast.IDENTIFIER:
+                return variable(n);
+            case Flat_ast.THIS:
+            case Flat_ast.NEW:
+                throw new UnsupportedOperationException("objects are not compiled yet");
+            case Flat_ast.NEW_BOOLEAN_ARRAY:
+                return boolean_array_allocation(n);
+            case Flat_ast.NEW_INT_ARRAY:
+                return integer_array_allocation(n);
+            case Flat_ast.NOT:
+                return not_expression(n);
+            default:
+                throw new IllegalStateException("node " + n + " is not an expression");
+        }
+    }
+
+    // Clause && Clause
+    private Operand and_expression(int n) throws Exception {
+
+        Operand left = expression(ast.child(n, 0));
+        Operand right = expression(ast.child(n, 1));
+
+        // case if false literal && r => returns false, true literal && r => returns r
+        if(left.is_constant()) return left.number == 0 ? Operand.FALSE : as_byte(right);
+        // case if l && false literal => returns false, l && true literal => returns l
+        if(right.is_constant()) return right.number == 0 ? Operand.FALSE : as_byte(left);
+
+        // default case l && r, the left clause as a bit
+        Operand l_bit = to_bit(load(left));
+
+        // if it is true we need additional steps in llvm, which take the registers loading the right clause takes
+        reg_counter++;
+        int br_label = reg_counter;
+        int c_label = br_label + bit_cost(right) + 1;
+        Block left_end = block;
+        ll_writer.write("\tbr i1 ").write(l_bit).write(", label %").write_int(br_label).write(", label %").write_int(c_label).write("\n");
+
+        // In this section we have the additional steps
+        begin_block(null, br_label);
+
+        // the right clause as a bit
+        Operand r_bit = to_bit(load(right));
+
+        // additional steps done
+        reg_counter++;
+        ll_writer.write("\tbr label %").write_int(c_label).write("\n");
+
+        // main steps
+        begin_block(null, c_label);
+
+        // we compare the two variables, false when the branch skipped the right clause
+        reg_counter++;
+        Operand result = Operand.value(Operand.IR_type.I1, reg_counter);
+        ll_writer.write_char('\t').write(result).write(" = phi i1 [ false, ");
+        write_block(left_end).write(" ], [ ").write(r_bit).write(", %").write_int(br_label).write(" ]\n");
+
+        // recast the result into a byte
+        return to_byte(result);
+    }
+
+    // PrimaryExpression < PrimaryExpression
+    private Operand compare_expression(int n) throws Exception {
+
+        Operand a = expression(ast.child(n, 0));
+        Operand b = expression(ast.child(n, 1));
+
+        // Loading the variables into non pointer registers
+        Operand reg_a = load(a);
+        Operand reg_b = load(b);
+
+        // two constants compare at compile time
+        if(reg_a.is_constant() && reg_b.is_constant()) return reg_a.number < reg_b.number ? Operand.TRUE : Operand.FALSE;
+
+        // Comparing the two numbers, it returns a bit
+        reg_counter++;
+        Operand comp = Operand.value(Operand.IR_type.I1, reg_counter);
+        ll_writer.write_char('\t').write(comp).write(" = icmp slt i32 ").write(reg_a).write(", ").write(reg_b).write("\n");
+
+        // we don't need to cast if we are inside a condition
+        if(in_cond) return comp;
+
+        // Casting the result into a byte
+        return to_byte(comp);
+    }
+
+    // PrimaryExpression [ PrimaryExpression ]
+    private Operand array_lookup(int n) throws Exception {
+
+        Operand array = expression(ast.child(n, 0));
+        Operand index = expression(ast.child(n, 1));
+
+        // Loading the array and the index
+        Operand array_reg = load(array);
+        Operand index_reg = load(index);
+
+        // Finding the memory space in the array for the index given
+        Operand element = element_pointer(array_reg, index_reg);
+
+        // Loading the element inside that memory space
+        Operand.IR_type element_type = array_reg.type.element();
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = load ").write(element_type).write(", ").write(array_reg.type).write(" ").write(element).write("\n");
+
+        return Operand.value(element_type, reg_counter);
+    }
+
+    // PrimaryExpression . length
+    private Operand array_length(int n) throws Exception {
+
+        Operand array = expression(ast.child(n, 0));
+
+        // arrays carry no length at run time, so it is the one known from where the array was allocated
+        Operand length = array.kind == Operand.Kind.SLOT ? array_lengths.get(array.var) : array.length;
+        if(length == null) throw new UnsupportedOperationException("the length of the array is not known at compile time");
+
+        length_reads++;
+        return length;
+    }
+
+    // every identifier in a statement or an expression is a variable
+    // its operand is what it holds at this point for a parameter or a local, the stack slot for a field
+    private Operand variable(int n) throws Exception {
+
+        Var_info v = lookup(n);
+        if(v.kind == Var_info.FIELD) return Operand.slot(v);
+
+        return values[v.index];
+    }
+
+    // the variable identifier n names
+    private Var_info lookup(int n) {
+
+        Var_info v = scope.lookup(ast.value(n));
+        if(v == null) throw new IllegalStateException(ast.name(n) + " is not a variable");
+        return v;
+    }
+
+    // new boolean [ Expression ]
+    private Operand boolean_array_allocation(int n) throws Exception {
+
+        // We find the array size if it is not an integer literal
+        Operand size = load(expression(ast.child(n, 0)));
+
+        // Allocating the boolean array
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = call i8* @calloc(i32 ").write(size).write(", i32 1)\n");
+
+        // the array remembers its length
+        return Operand.value(Operand.IR_type.I8_PTR, reg_counter, size);
+    }
+
+    // new int [ Expression ]
+    private Operand integer_array_allocation(int n) throws Exception {
+
+        // We find the array size if it is not an integer literal
+        Operand size = load(expression(ast.child(n, 0)));
+
+        // Allocating the integer array
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = call i8* @calloc(i32 ").write(size).write(", i32 4)\n");
+
+        // We need to cast the register to i32* because calloc only returns i8*
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = bitcast i8* ").write_reg(reg_counter - 1).write(" to i32*\n");
+
+        // the array remembers its length
+        return Operand.value(Operand.IR_type.I32_PTR, reg_counter, size);
+    }
+
+    // ! Clause
+    private Operand not_expression(int n) throws Exception {
+
+        // we cast the clause to a bit
+        Operand bit = to_bit(load(expression(ast.child(n, 0))));
+
+        // a constant is negated at compile time
+        if(bit.is_constant()) return bit.number == 0 ? Operand.TRUE : Operand.FALSE;
+
+        // and we do clause xor 1 because it will always be equal to !clause
+        reg_counter++;
+        Operand xor = Operand.value(Operand.IR_type.I1, reg_counter);
+        ll_writer.write_char('\t').write(xor).write(" = xor i1 ").write(bit).write(", 1\n");
+
+        // we don't need to cast if we are inside a condition
+        if(in_cond) return xor;
+
+        // we cast the result to a byte
+        return to_byte(xor);
+    }
+
+    // starts the state kept while a function is generated, registers are numbered from the start again,
+    // parameters hold the arguments and locals hold 0, and the table of array lengths is sized for the fields
+    private void open_function(Method_info method) {
+
+        reg_counter = 0;
+        label_counter = 0;
+        length_reads = 0;
+        block = Block.ENTRY;
+
+        variables = new Var_info[method.vars.size()];
+        values = new Operand[variables.length];
+        for(Var_info v: method.vars.values())
+        {
+            variables[v.index] = v;
+            values[v.index] = v.kind == Var_info.PARAM ? Operand.argument(v) : Operand.zero(Operand.IR_type.of(v.type));
+        }
+
+        array_lengths = new HashMap<Var_info, Operand>(method.owner.fields.size() * 4 / 3 + 1);
+    }
+
+    // drops the state of the function that has just been generated
+    private void close_function() {
+
+        array_lengths = null;
+        variables = null;
+        values = null;
+        block = null;
+    }
+
+    // starts the basic block <label><n>, or the one numbered n like a register when label is null
+    private void begin_block(String label, int n) throws Exception {
+
+        if(label != null) ll_writer.write_label(label, n);
+        else ll_writer.write_char('\n').write_int(n).write(":\n");
+        block = new Block(label, n);
+    }
+
+    // appends a basic block the way a branch or a phi refers to it
+    private IR_Emitter write_block(Block b) throws Exception {
+
+        ll_writer.write_char('%');
+        if(b.label != null) ll_writer.write(b.label);
+        return ll_writer.write_int(b.number);
+    }
+
+    // appends the name the latch of loop <label> gives to what the body leaves in a variable, %<name>.latch<label>,
+    // or to the length of the array in it, %<name>.length.latch<label>
+    private IR_Emitter write_latch_value(Var_info v, int label, boolean length) throws Exception {
+
+        ll_writer.write_char('%').write(v.name);
+        if(length) ll_writer.write(".length");
+        return ll_writer.write(".latch").write_int(label);
+    }
+
+    // merges the values a variable has at the ends of two blocks, the block just begun is where they meet
+    // an array has a length when both sides know one, merged by a phi of its own when they differ
+    private Operand phi(Operand a, Block from_a, Operand b, Block from_b) throws Exception {
+
+        reg_counter++;
+        int value = reg_counter;
+        ll_writer.write_char('\t').write_reg(value).write(" = phi ").write(a.type).write(" [ ").write(a).write(", ");
+        write_block(from_a).write(" ], [ ").write(b).write(", ");
+        write_block(from_b).write(" ]\n");
+
+        if(a.length == null || b.length == null) return Operand.value(a.type, value);
+        if(a.length.same(b.length)) return Operand.value(a.type, value, a.length);
+
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = phi i32 [ ").write(a.length).write(", ");
+        write_block(from_a).write(" ], [ ").write(b.length).write(", ");
+        write_block(from_b).write(" ]\n");
+        return Operand.value(a.type, value, Operand.value(Operand.IR_type.I32, reg_counter));
+    }
+
+    // the value an operand stands for, a stack slot is loaded into a register first
+    private Operand load(Operand o) throws Exception {
+
+        switch(o.kind)
+        {
+            case SLOT:
+                reg_counter++;
+                ll_writer.write_char('\t').write_reg(reg_counter).write(" = load ").write(o.type).write(", ").write(o.type.pointer).write(" ").write(o).write("\n");
+                // an array loaded out of a variable keeps the length known for the variable
+                return Operand.value(o.type, reg_counter, array_lengths.get(o.var));
+            default:
+                return o;
+        }
+    }
+
+    // a boolean value as a bit, which is what branches and phis take
+    private Operand to_bit(Operand o) throws Exception {
+
+        if(o.type == Operand.IR_type.I1) return o;
+        if(o.is_constant()) return Operand.constant(Operand.IR_type.I1, o.number);
+
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = trunc i8 ").write(o).write(" to i1\n");
+        return Operand.value(Operand.IR_type.I1, reg_counter);
+    }
+
+    // a boolean value as a byte, which is how variables and arrays hold it
+    private Operand to_byte(Operand o) throws Exception {
+
+        if(o.type != Operand.IR_type.I1) return o;
+        if(o.is_constant()) return o.number == 0 ? Operand.FALSE : Operand.TRUE;
+
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = zext i1 ").write(o).write(" to i8\n");
+        return Operand.value(Operand.IR_type.I8, reg_counter);
+    }
+
+    // a clause as a byte that is exactly 0 or 1, literals are that already
+    private Operand as_byte(Operand o) throws Exception {
+
+        if(o.is_constant()) return o;
+        return to_byte(to_bit(load(o)));
+    }
+
+    // the registers load() and to_bit() take to turn the operand into a bit
+    private int bit_cost(Operand o) {
+
+        int cost = o.kind == Operand.Kind.SLOT ? 1 : 0;
+        if(o.type != Operand.IR_type.I1) cost++;
+        return cost;
+    }
+
+    // emits <op> i32 on the values of two integer operands
+    private Operand arithmetic(String op, Operand a, Operand b) throws Exception {
+
+        // Loading the variables into non pointer registers
+        Operand reg_a = load(a);
+        Operand reg_b = load(b);
+
+        // two constants are computed at compile time, wrapping around the way i32 does
+        if(reg_a.is_constant() && reg_b.is_constant()) return Operand.constant(Operand.IR_type.I32, fold(op, reg_a.number, reg_b.number));
+
+        reg_counter++;
+        Operand result = Operand.value(Operand.IR_type.I32, reg_counter);
+        ll_writer.write_char('\t').write(result).write(" = ").write(op).write(" i32 ").write(reg_a).write(", ").write(reg_b).write("\n");
+        return result;
+    }
+
+    // the value of <op> i32 on two immediates
+    private static int fold(String op, int a, int b) {
+
+        switch(op)
+        {
+            case "add": return a + b;
+            case "sub": return a - b;
+            case "mul": return a * b;
+            default: throw new IllegalStateException(op + " is not an arithmetic instruction");
+        }
+    }
+
+    // emits the address of an element of an array
+    private Operand element_pointer(Operand array, Operand index) throws Exception {
+
+        reg_counter++;
+        ll_writer.write_char('\t').write_reg(reg_counter).write(" = getelementptr inbounds ").write(array.type.element()).write(", ").write(array.type).write(" ").write(array).write(", i32 ").write(index).write("\n");
+        return Operand.value(array.type, reg_counter);
+    }
+
+    // a basic block, as the branches into it and the phis merging at it name it
+    private static final class Block
+    {
+        // the block a function starts in, LLVM numbers it %0
+        static final Block ENTRY = new Block(null, 0);
+
+        // the label, null for a block numbered like a register
+        final String label;
+        final int number;
+
+        Block(String label, int number)
+        {
+            this.label = label;
+            this.number = number;
+        }
+    }
+}
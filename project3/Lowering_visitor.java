@@ -0,0 +1,475 @@
+import syntaxtree.*;
+import visitor.*;
+
+import java.util.Arrays;
+
+// Lowers the syntax tree of a program into a Flat_ast.
+//
+// Every declaration, statement and expression visited pushes the node it was lowered to on a stack
+// of ints, so a node is added once its children are all on top of the stack and takes them off it.
+// The productions that only choose between others, Statement, Expression, Clause and the like, are
+// left to the depth first visit, which pushes the one node of whichever was chosen. Brackets around
+// an expression are dropped, the expression in them is what both checking and codegen look at.
+class Lowering_visitor extends GJVoidDepthFirst<Void>
+{
+    final Flat_ast ast;
+
+    // nodes lowered and not added as the child of another yet
+    private int[] stack;
+    private int top;
+
+    public Lowering_visitor(Name_table names)
+    {
+        ast = new Flat_ast(1024, names);
+        stack = new int[64];
+        top = 0;
+    }
+
+    /**
+     * f0 -> MainClass()
+     * f1 -> ( TypeDeclaration() )*
+     * f2 -> <EOF>
+     */
+    @Override
+    public void visit(Goal n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f0.accept(this, null);
+        n.f1.accept(this, null);
+        add(Flat_ast.GOAL, 0, mark);
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * f2 -> "{"
+     * f3 -> "public"
+     * f4 -> "static"
+     * f5 -> "void"
+     * f6 -> "main"
+     * f7 -> "("
+     * f8 -> "String"
+     * f9 -> "["
+     * f10 -> "]"
+     * f11 -> Identifier()
+     * f12 -> ")"
+     * f13 -> "{"
+     * f14 -> ( VarDeclaration() )*
+     * f15 -> ( Statement() )*
+     * f16 -> "}"
+     * f17 -> "}"
+     */
+    @Override
+    public void visit(MainClass n, Void argu) throws Exception {
+
+        int mark = top;
+        name(Flat_ast.NAME, n.f11);
+        list(n.f14);
+        list(n.f15);
+        add(Flat_ast.MAIN_CLASS, ast.intern(n.f1.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * f2 -> "{"
+     * f3 -> ( VarDeclaration() )*
+     * f4 -> ( MethodDeclaration() )*
+     * f5 -> "}"
+     */
+    @Override
+    public void visit(ClassDeclaration n, Void argu) throws Exception {
+
+        int mark = top;
+        list(n.f3);
+        list(n.f4);
+        add(Flat_ast.CLASS, ast.intern(n.f1.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> "class"
+     * f1 -> Identifier()
+     * f2 -> "extends"
+     * f3 -> Identifier()
+     * f4 -> "{"
+     * f5 -> ( VarDeclaration() )*
+     * f6 -> ( MethodDeclaration() )*
+     * f7 -> "}"
+     */
+    @Override
+    public void visit(ClassExtendsDeclaration n, Void argu) throws Exception {
+
+        int mark = top;
+        list(n.f5);
+        list(n.f6);
+        name(Flat_ast.NAME, n.f3);
+        add(Flat_ast.CLASS, ast.intern(n.f1.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> Type()
+     * f1 -> Identifier()
+     * f2 -> ";"
+     */
+    @Override
+    public void visit(VarDeclaration n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f0.accept(this, null);
+        add(Flat_ast.VAR, ast.intern(n.f1.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> "public"
+     * f1 -> Type()
+     * f2 -> Identifier()
+     * f3 -> "("
+     * f4 -> ( FormalParameterList() )?
+     * f5 -> ")"
+     * f6 -> "{"
+     * f7 -> ( VarDeclaration() )*
+     * f8 -> ( Statement() )*
+     * f9 -> "return"
+     * f10 -> Expression()
+     * f11 -> ";"
+     * f12 -> "}"
+     */
+    @Override
+    public void visit(MethodDeclaration n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f1.accept(this, null);
+        list(n.f4);
+        list(n.f7);
+        list(n.f8);
+        n.f10.accept(this, null);
+        add(Flat_ast.METHOD, ast.intern(n.f2.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> Type()
+     * f1 -> Identifier()
+     */
+    @Override
+    public void visit(FormalParameter n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f0.accept(this, null);
+        add(Flat_ast.VAR, ast.intern(n.f1.f0.toString()), mark);
+    }
+
+    @Override
+    public void visit(Type n, Void argu) throws Exception {
+
+        push(ast.add(Flat_ast.TYPE, ast.intern(Symbol_table.type_name(n)), stack, top, 0));
+    }
+
+    /**
+     * f0 -> "{"
+     * f1 -> ( Statement() )*
+     * f2 -> "}"
+     */
+    @Override
+    public void visit(Block n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f1.accept(this, null);
+        add(Flat_ast.BLOCK, 0, mark);
+    }
+
+    /**
+     * f0 -> Identifier()
+     * f1 -> "="
+     * f2 -> Expression()
+     * f3 -> ";"
+     */
+    @Override
+    public void visit(AssignmentStatement n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f2.accept(this, null);
+        add(Flat_ast.ASSIGN, ast.intern(n.f0.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> Identifier()
+     * f1 -> "["
+     * f2 -> Expression()
+     * f3 -> "]"
+     * f4 -> "="
+     * f5 -> Expression()
+     * f6 -> ";"
+     */
+    @Override
+    public void visit(ArrayAssignmentStatement n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f2.accept(this, null);
+        n.f5.accept(this, null);
+        add(Flat_ast.ARRAY_ASSIGN, ast.intern(n.f0.f0.toString()), mark);
+    }
+
+    /**
+     * f0 -> "if"
+     * f1 -> "("
+     * f2 -> Expression()
+     * f3 -> ")"
+     * f4 -> Statement()
+     * f5 -> "else"
+     * f6 -> Statement()
+     */
+    @Override
+    public void visit(IfStatement n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f2.accept(this, null);
+        n.f4.accept(this, null);
+        n.f6.accept(this, null);
+        add(Flat_ast.IF, 0, mark);
+    }
+
+    /**
+     * f0 -> "while"
+     * f1 -> "("
+     * f2 -> Expression()
+     * f3 -> ")"
+     * f4 -> Statement()
+     */
+    @Override
+    public void visit(WhileStatement n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f2.accept(this, null);
+        n.f4.accept(this, null);
+        add(Flat_ast.WHILE, 0, mark);
+    }
+
+    /**
+     * f0 -> "System.out.println"
+     * f1 -> "("
+     * f2 -> Expression()
+     * f3 -> ")"
+     * f4 -> ";"
+     */
+    @Override
+    public void visit(PrintStatement n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f2.accept(this, null);
+        add(Flat_ast.PRINT, 0, mark);
+    }
+
+    @Override
+    public void visit(AndExpression n, Void argu) throws Exception {
+
+        binary(Flat_ast.AND, n.f0, n.f2);
+    }
+
+    @Override
+    public void visit(CompareExpression n, Void argu) throws Exception {
+
+        binary(Flat_ast.LESS, n.f0, n.f2);
+    }
+
+    @Override
+    public void visit(PlusExpression n, Void argu) throws Exception {
+
+        binary(Flat_ast.PLUS, n.f0, n.f2);
+    }
+
+    @Override
+    public void visit(MinusExpression n, Void argu) throws Exception {
+
+        binary(Flat_ast.MINUS, n.f0, n.f2);
+    }
+
+    @Override
+    public void visit(TimesExpression n, Void argu) throws Exception {
+
+        binary(Flat_ast.TIMES, n.f0, n.f2);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "["
+     * f2 -> PrimaryExpression()
+     * f3 -> "]"
+     */
+    @Override
+    public void visit(ArrayLookup n, Void argu) throws Exception {
+
+        binary(Flat_ast.ARRAY_LOOKUP, n.f0, n.f2);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "."
+     * f2 -> "length"
+     */
+    @Override
+    public void visit(ArrayLength n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f0.accept(this, null);
+        add(Flat_ast.ARRAY_LENGTH, 0, mark);
+    }
+
+    /**
+     * f0 -> PrimaryExpression()
+     * f1 -> "."
+     * f2 -> Identifier()
+     * f3 -> "("
+     * f4 -> ( ExpressionList() )?
+     * f5 -> ")"
+     */
+    @Override
+    public void visit(MessageSend n, Void argu) throws Exception {
+
+        // the depth first visit of the list pushes every argument in order
+        int mark = top;
+        n.f0.accept(this, null);
+        n.f4.accept(this, null);
+        add(Flat_ast.CALL, ast.intern(n.f2.f0.toString()), mark);
+    }
+
+    @Override
+    public void visit(IntegerLiteral n, Void argu) throws Exception {
+
+        // the lexer takes any run of digits, the ones that do not fit an int are not a valid literal
+        int value;
+        try{
+            value = Integer.parseInt(n.f0.toString());
+        }
+        catch(NumberFormatException ex){
+            throw new ParseException("Semantic Error, integer literal " + n.f0 + " is too large");
+        }
+
+        push(ast.add(Flat_ast.INTEGER, value, stack, top, 0));
+    }
+
+    @Override
+    public void visit(TrueLiteral n, Void argu) throws Exception {
+
+        push(ast.add(Flat_ast.TRUE, 0, stack, top, 0));
+    }
+
+    @Override
+    public void visit(FalseLiteral n, Void argu) throws Exception {
+
+        push(ast.add(Flat_ast.FALSE, 0, stack, top, 0));
+    }
+
+    // every identifier visited is a variable in an expression, the ones naming anything else are read where they are
+    @Override
+    public void visit(Identifier n, Void argu) throws Exception {
+
+        name(Flat_ast.IDENTIFIER, n);
+    }
+
+    @Override
+    public void visit(ThisExpression n, Void argu) throws Exception {
+
+        push(ast.add(Flat_ast.THIS, 0, stack, top, 0));
+    }
+
+    /**
+     * f0 -> "new"
+     * f1 -> "boolean"
+     * f2 -> "["
+     * f3 -> Expression()
+     * f4 -> "]"
+     */
+    @Override
+    public void visit(BooleanArrayAllocationExpression n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f3.accept(this, null);
+        add(Flat_ast.NEW_BOOLEAN_ARRAY, 0, mark);
+    }
+
+    /**
+     * f0 -> "new"
+     * f1 -> "int"
+     * f2 -> "["
+     * f3 -> Expression()
+     * f4 -> "]"
+     */
+    @Override
+    public void visit(IntegerArrayAllocationExpression n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f3.accept(this, null);
+        add(Flat_ast.NEW_INT_ARRAY, 0, mark);
+    }
+
+    /**
+     * f0 -> "new"
+     * f1 -> Identifier()
+     * f2 -> "("
+     * f3 -> ")"
+     */
+    @Override
+    public void visit(AllocationExpression n, Void argu) throws Exception {
+
+        name(Flat_ast.NEW, n.f1);
+    }
+
+    /**
+     * f0 -> "!"
+     * f1 -> Clause()
+     */
+    @Override
+    public void visit(NotExpression n, Void argu) throws Exception {
+
+        int mark = top;
+        n.f1.accept(this, null);
+        add(Flat_ast.NOT, 0, mark);
+    }
+
+    /**
+     * f0 -> "("
+     * f1 -> Expression()
+     * f2 -> ")"
+     */
+    @Override
+    public void visit(BracketExpression n, Void argu) throws Exception {
+
+        n.f1.accept(this, null);
+    }
+
+    // lowers a list of declarations or statements into a LIST node, an empty one when nothing is there
+    private void list(Node n) throws Exception
+    {
+        int mark = top;
+        n.accept(this, null);
+        add(Flat_ast.LIST, 0, mark);
+    }
+
+    private void binary(int kind, Node left, Node right) throws Exception
+    {
+        int mark = top;
+        left.accept(this, null);
+        right.accept(this, null);
+        add(kind, 0, mark);
+    }
+
+    // a leaf for the name an identifier holds
+    private void name(int kind, Identifier n)
+    {
+        push(ast.add(kind, ast.intern(n.f0.toString()), stack, top, 0));
+    }
+
+    // adds a node whose children are everything pushed since mark, in place of them
+    private void add(int kind, int value, int mark)
+    {
+        int node = ast.add(kind, value, stack, top, top - mark);
+        top = mark;
+        push(node);
+    }
+
+    private void push(int node)
+    {
+        if(top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+        stack[top++] = node;
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.*;
+
+// A method, its parameters and all its variables (parameters first, then locals)
+class Method_info
+{
+    public final Class_info owner;
+    public final int id;
+    public final String name;
+    public final String type;
+    public final List<Var_info> params;
+    public final LinkedHashMap<Integer, Var_info> vars;
+
+    // offset of the method in the method table of its class
+    public int offset;
+
+    Method_info(Class_info owner, int id, String name, String type)
+    {
+        this.owner = owner;
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        params = new ArrayList<Var_info>();
+        vars = new LinkedHashMap<Integer, Var_info>();
+        offset = -1;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Vector;
 
 
 public class MiniJavaParser implements MiniJavaParserConstants {
+   final Parser_lookahead lookahead = new Parser_lookahead(this);
 
   final public Goal Goal() throws ParseException {
    MainClass n0;
@@ -14,12 +15,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n0 = MainClass();
     label_1:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case CLASS:
+      if (lookahead.starts_class()) {
         ;
-        break;
-      default:
-        jj_la1[0] = jj_gen;
+      } else {
         break label_1;
       }
       n2 = TypeDeclaration();
@@ -33,6 +31,16 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     throw new Error("Missing return statement in function");
   }
 
+  final public EndOfFile EndOfFile() throws ParseException {
+   NodeToken n0;
+   Token n1;
+    n1 = jj_consume_token(0);
+      n1.beginColumn++; n1.endColumn++;
+      n0 = JTBToolkit.makeNodeToken(n1);
+     {if (true) return new EndOfFile(n0);}
+    throw new Error("Missing return statement in function");
+  }
+
   final public MainClass MainClass() throws ParseException {
    NodeToken n0;
    Token n1;
@@ -96,7 +104,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
              n24 = JTBToolkit.makeNodeToken(n25);
     label_2:
     while (true) {
-      if (jj_2_1(2)) {
+      if (lookahead.var_declaration()) {
         ;
       } else {
         break label_2;
@@ -107,16 +115,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
      n26.nodes.trimToSize();
     label_3:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LBRACE:
-      case IF:
-      case WHILE:
-      case PRINT:
-      case IDENTIFIER:
+      if (lookahead.starts_statement()) {
         ;
-        break;
-      default:
-        jj_la1[1] = jj_gen;
+      } else {
         break label_3;
       }
       n29 = Statement();
@@ -135,7 +136,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    NodeChoice n0;
    ClassDeclaration n1;
    ClassExtendsDeclaration n2;
-    if (jj_2_2(3)) {
+    if (lookahead.class_declaration()) {
       n1 = ClassDeclaration();
         n0 = new NodeChoice(n1, 0);
     } else {
@@ -145,7 +146,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n2, 1);
         break;
       default:
-        jj_la1[2] = jj_gen;
+        jj_la1[0] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -173,14 +174,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
             n3 = JTBToolkit.makeNodeToken(n4);
     label_4:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case BOOLEAN:
-      case INTEGER:
-      case IDENTIFIER:
+      if (lookahead.starts_type()) {
         ;
-        break;
-      default:
-        jj_la1[3] = jj_gen;
+      } else {
         break label_4;
       }
       n6 = VarDeclaration();
@@ -194,7 +190,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[4] = jj_gen;
+        jj_la1[1] = jj_gen;
         break label_5;
       }
       n8 = MethodDeclaration();
@@ -232,14 +228,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
             n6 = JTBToolkit.makeNodeToken(n7);
     label_6:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case BOOLEAN:
-      case INTEGER:
-      case IDENTIFIER:
+      if (lookahead.starts_type()) {
         ;
-        break;
-      default:
-        jj_la1[5] = jj_gen;
+      } else {
         break label_6;
       }
       n9 = VarDeclaration();
@@ -253,7 +244,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[6] = jj_gen;
+        jj_la1[2] = jj_gen;
         break label_7;
       }
       n11 = MethodDeclaration();
@@ -309,15 +300,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n3 = Identifier();
     n5 = jj_consume_token(LPAREN);
             n4 = JTBToolkit.makeNodeToken(n5);
-    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case BOOLEAN:
-    case INTEGER:
-    case IDENTIFIER:
+    if (lookahead.starts_type()) {
       n7 = FormalParameterList();
         n6.addNode(n7);
-      break;
-    default:
-      jj_la1[7] = jj_gen;
+    } else {
       ;
     }
     n9 = jj_consume_token(RPAREN);
@@ -326,7 +312,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
              n10 = JTBToolkit.makeNodeToken(n11);
     label_8:
     while (true) {
-      if (jj_2_3(2)) {
+      if (lookahead.var_declaration()) {
         ;
       } else {
         break label_8;
@@ -337,16 +323,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
      n12.nodes.trimToSize();
     label_9:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LBRACE:
-      case IF:
-      case WHILE:
-      case PRINT:
-      case IDENTIFIER:
+      if (lookahead.starts_statement()) {
         ;
-        break;
-      default:
-        jj_la1[8] = jj_gen;
+      } else {
         break label_9;
       }
       n15 = Statement();
@@ -392,7 +371,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[9] = jj_gen;
+        jj_la1[3] = jj_gen;
         break label_10;
       }
       n1 = FormalParameterTerm();
@@ -420,7 +399,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    BooleanType n2;
    IntegerType n3;
    Identifier n4;
-    if (jj_2_4(3)) {
+    if (lookahead.array_type()) {
       n1 = ArrayType();
         n0 = new NodeChoice(n1, 0);
     } else {
@@ -438,7 +417,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n4, 3);
         break;
       default:
-        jj_la1[10] = jj_gen;
+        jj_la1[4] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -461,7 +440,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n2, 1);
       break;
     default:
-      jj_la1[11] = jj_gen;
+      jj_la1[5] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -535,11 +514,11 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n1, 0);
       break;
     default:
-      jj_la1[12] = jj_gen;
-      if (jj_2_5(2)) {
+      jj_la1[6] = jj_gen;
+      if (lookahead.assignment()) {
         n2 = AssignmentStatement();
         n0 = new NodeChoice(n2, 1);
-      } else if (jj_2_6(2)) {
+      } else if (lookahead.array_assignment()) {
         n3 = ArrayAssignmentStatement();
         n0 = new NodeChoice(n3, 2);
       } else {
@@ -557,7 +536,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n6, 5);
           break;
         default:
-          jj_la1[13] = jj_gen;
+          jj_la1[7] = jj_gen;
           jj_consume_token(-1);
           throw new ParseException();
         }
@@ -578,16 +557,9 @@ public class MiniJavaParser implements MiniJavaParserConstants {
             n0 = JTBToolkit.makeNodeToken(n1);
     label_11:
     while (true) {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LBRACE:
-      case IF:
-      case WHILE:
-      case PRINT:
-      case IDENTIFIER:
+      if (lookahead.starts_statement()) {
         ;
-        break;
-      default:
-        jj_la1[14] = jj_gen;
+      } else {
         break label_11;
       }
       n3 = Statement();
@@ -726,48 +698,36 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    ArrayLength n7;
    MessageSend n8;
    Clause n9;
-    if (jj_2_7(2147483647)) {
+    if (lookahead.expression() == Parser_lookahead.AND_EXPRESSION) {
       n1 = AndExpression();
         n0 = new NodeChoice(n1, 0);
-    } else if (jj_2_8(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.COMPARE_EXPRESSION) {
       n2 = CompareExpression();
         n0 = new NodeChoice(n2, 1);
-    } else if (jj_2_9(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.PLUS_EXPRESSION) {
       n3 = PlusExpression();
         n0 = new NodeChoice(n3, 2);
-    } else if (jj_2_10(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.MINUS_EXPRESSION) {
       n4 = MinusExpression();
         n0 = new NodeChoice(n4, 3);
-    } else if (jj_2_11(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.TIMES_EXPRESSION) {
       n5 = TimesExpression();
         n0 = new NodeChoice(n5, 4);
-    } else if (jj_2_12(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.ARRAY_LOOKUP) {
       n6 = ArrayLookup();
         n0 = new NodeChoice(n6, 5);
-    } else if (jj_2_13(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.ARRAY_LENGTH) {
       n7 = ArrayLength();
         n0 = new NodeChoice(n7, 6);
-    } else if (jj_2_14(2147483647)) {
+    } else if (lookahead.expression() == Parser_lookahead.MESSAGE_SEND) {
       n8 = MessageSend();
         n0 = new NodeChoice(n8, 7);
-    } else {
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LPAREN:
-      case NOT:
-      case FALSE:
-      case NEW:
-      case THIS:
-      case TRUE:
-      case INTEGER_LITERAL:
-      case IDENTIFIER:
-        n9 = Clause();
+    } else if (lookahead.expression() == Parser_lookahead.CLAUSE) {
+      n9 = Clause();
         n0 = new NodeChoice(n9, 8);
-        break;
-      default:
-        jj_la1[15] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    } else {
+      jj_consume_token(-1);
+      throw new ParseException();
     }
      {if (true) return new Expression(n0);}
     throw new Error("Missing return statement in function");
@@ -887,20 +847,10 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     n3 = Identifier();
     n5 = jj_consume_token(LPAREN);
             n4 = JTBToolkit.makeNodeToken(n5);
-    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case LPAREN:
-    case NOT:
-    case FALSE:
-    case NEW:
-    case THIS:
-    case TRUE:
-    case INTEGER_LITERAL:
-    case IDENTIFIER:
+    if (lookahead.starts_expression()) {
       n7 = ExpressionList();
         n6.addNode(n7);
-      break;
-    default:
-      jj_la1[16] = jj_gen;
+    } else {
       ;
     }
     n9 = jj_consume_token(RPAREN);
@@ -928,7 +878,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         ;
         break;
       default:
-        jj_la1[17] = jj_gen;
+        jj_la1[8] = jj_gen;
         break label_12;
       }
       n1 = ExpressionTerm();
@@ -959,20 +909,15 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       n1 = NotExpression();
         n0 = new NodeChoice(n1, 0);
       break;
-    case LPAREN:
-    case FALSE:
-    case NEW:
-    case THIS:
-    case TRUE:
-    case INTEGER_LITERAL:
-    case IDENTIFIER:
-      n2 = PrimaryExpression();
-        n0 = new NodeChoice(n2, 1);
-      break;
     default:
-      jj_la1[18] = jj_gen;
-      jj_consume_token(-1);
-      throw new ParseException();
+      jj_la1[9] = jj_gen;
+      if (true) {
+        n2 = PrimaryExpression();
+        n0 = new NodeChoice(n2, 1);
+      } else {
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
     }
      {if (true) return new Clause(n0);}
     throw new Error("Missing return statement in function");
@@ -1010,8 +955,8 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n5, 4);
       break;
     default:
-      jj_la1[19] = jj_gen;
-      if (jj_2_15(3)) {
+      jj_la1[10] = jj_gen;
+      if (lookahead.array_allocation()) {
         n6 = ArrayAllocationExpression();
         n0 = new NodeChoice(n6, 5);
       } else {
@@ -1025,7 +970,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         n0 = new NodeChoice(n8, 7);
           break;
         default:
-          jj_la1[20] = jj_gen;
+          jj_la1[11] = jj_gen;
           jj_consume_token(-1);
           throw new ParseException();
         }
@@ -1084,15 +1029,20 @@ public class MiniJavaParser implements MiniJavaParserConstants {
    NodeChoice n0;
    BooleanArrayAllocationExpression n1;
    IntegerArrayAllocationExpression n2;
-    if (jj_2_16(3)) {
+    if (lookahead.boolean_array_allocation()) {
       n1 = BooleanArrayAllocationExpression();
         n0 = new NodeChoice(n1, 0);
-    } else if (jj_2_17(3)) {
-      n2 = IntegerArrayAllocationExpression();
-        n0 = new NodeChoice(n2, 1);
     } else {
-      jj_consume_token(-1);
-      throw new ParseException();
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case NEW:
+        n2 = IntegerArrayAllocationExpression();
+        n0 = new NodeChoice(n2, 1);
+        break;
+      default:
+        jj_la1[12] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
     }
      {if (true) return new ArrayAllocationExpression(n0);}
     throw new Error("Missing return statement in function");
@@ -1189,647 +1139,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     throw new Error("Missing return statement in function");
   }
 
-  private boolean jj_2_1(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_1(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(0, xla); }
-  }
-
-  private boolean jj_2_2(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_2(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(1, xla); }
-  }
-
-  private boolean jj_2_3(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_3(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(2, xla); }
-  }
-
-  private boolean jj_2_4(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_4(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(3, xla); }
-  }
-
-  private boolean jj_2_5(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_5(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(4, xla); }
-  }
-
-  private boolean jj_2_6(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_6(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(5, xla); }
-  }
-
-  private boolean jj_2_7(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_7(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(6, xla); }
-  }
-
-  private boolean jj_2_8(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_8(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(7, xla); }
-  }
-
-  private boolean jj_2_9(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_9(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(8, xla); }
-  }
-
-  private boolean jj_2_10(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_10(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(9, xla); }
-  }
-
-  private boolean jj_2_11(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_11(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(10, xla); }
-  }
-
-  private boolean jj_2_12(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_12(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(11, xla); }
-  }
-
-  private boolean jj_2_13(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_13(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(12, xla); }
-  }
-
-  private boolean jj_2_14(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_14(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(13, xla); }
-  }
-
-  private boolean jj_2_15(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_15(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(14, xla); }
-  }
-
-  private boolean jj_2_16(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_16(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(15, xla); }
-  }
-
-  private boolean jj_2_17(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_17(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(16, xla); }
-  }
-
-  private boolean jj_3R_56() {
-    if (jj_3R_65()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_70() {
-    Token xsp;
-    while (true) {
-      xsp = jj_scanpos;
-      if (jj_3R_71()) { jj_scanpos = xsp; break; }
-    }
-    return false;
-  }
-
-  private boolean jj_3R_22() {
-    if (jj_scan_token(NEW)) return true;
-    if (jj_scan_token(BOOLEAN)) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_3R_50()) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3_9() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(PLUS)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_55() {
-    if (jj_3R_64()) return true;
-    return false;
-  }
-
-  private boolean jj_3_8() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LT)) return true;
-    return false;
-  }
-
-  private boolean jj_3_1() {
-    if (jj_3R_13()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_54() {
-    if (jj_3R_63()) return true;
-    return false;
-  }
-
-  private boolean jj_3_6() {
-    if (jj_3R_17()) return true;
-    return false;
-  }
-
-  private boolean jj_3_7() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(AND)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_53() {
-    if (jj_3R_62()) return true;
-    return false;
-  }
-
-  private boolean jj_3_5() {
-    if (jj_3R_16()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_69() {
-    if (jj_3R_50()) return true;
-    if (jj_3R_70()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_52() {
-    if (jj_3R_61()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_51() {
-    if (jj_3R_60()) return true;
-    return false;
-  }
-
-  private boolean jj_3_17() {
-    if (jj_3R_23()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_50() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_51()) {
-    jj_scanpos = xsp;
-    if (jj_3R_52()) {
-    jj_scanpos = xsp;
-    if (jj_3R_53()) {
-    jj_scanpos = xsp;
-    if (jj_3R_54()) {
-    jj_scanpos = xsp;
-    if (jj_3R_55()) {
-    jj_scanpos = xsp;
-    if (jj_3R_56()) {
-    jj_scanpos = xsp;
-    if (jj_3R_57()) {
-    jj_scanpos = xsp;
-    if (jj_3R_58()) {
-    jj_scanpos = xsp;
-    if (jj_3R_59()) return true;
-    }
-    }
-    }
-    }
-    }
-    }
-    }
-    }
-    return false;
-  }
-
-  private boolean jj_3_16() {
-    if (jj_3R_22()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_68() {
-    if (jj_3R_69()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_21() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_16()) {
-    jj_scanpos = xsp;
-    if (jj_3_17()) return true;
-    }
-    return false;
-  }
-
-  private boolean jj_3_3() {
-    if (jj_3R_13()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_67() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_3R_20()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_68()) jj_scanpos = xsp;
-    if (jj_scan_token(RPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_49() {
-    if (jj_scan_token(INTEGER)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_45() {
-    if (jj_scan_token(THIS)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_48() {
-    if (jj_scan_token(BOOLEAN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_20() {
-    if (jj_scan_token(IDENTIFIER)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_66() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_scan_token(LENGTH)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_40() {
-    if (jj_scan_token(INTEGER)) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_44() {
-    if (jj_scan_token(FALSE)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_65() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_13() {
-    if (jj_3R_24()) return true;
-    if (jj_3R_20()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_43() {
-    if (jj_scan_token(TRUE)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_39() {
-    if (jj_scan_token(BOOLEAN)) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_42() {
-    if (jj_scan_token(INTEGER_LITERAL)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_64() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(48)) return true;
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_26() {
-    if (jj_3R_40()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_25() {
-    if (jj_3R_39()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_35() {
-    if (jj_3R_47()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_15() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_25()) {
-    jj_scanpos = xsp;
-    if (jj_3R_26()) return true;
-    }
-    return false;
-  }
-
-  private boolean jj_3R_34() {
-    if (jj_3R_46()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_47() {
-    if (jj_scan_token(LPAREN)) return true;
-    if (jj_3R_50()) return true;
-    if (jj_scan_token(RPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_63() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(MINUS)) return true;
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3_15() {
-    if (jj_3R_21()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_33() {
-    if (jj_3R_45()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_32() {
-    if (jj_3R_20()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_38() {
-    if (jj_3R_20()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_31() {
-    if (jj_3R_44()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_37() {
-    if (jj_3R_49()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_17() {
-    if (jj_3R_20()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_30() {
-    if (jj_3R_43()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_36() {
-    if (jj_3R_48()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_29() {
-    if (jj_3R_42()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_41() {
-    if (jj_scan_token(NOT)) return true;
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
-  private boolean jj_3_4() {
-    if (jj_3R_15()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_62() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(PLUS)) return true;
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_19() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_29()) {
-    jj_scanpos = xsp;
-    if (jj_3R_30()) {
-    jj_scanpos = xsp;
-    if (jj_3R_31()) {
-    jj_scanpos = xsp;
-    if (jj_3R_32()) {
-    jj_scanpos = xsp;
-    if (jj_3R_33()) {
-    jj_scanpos = xsp;
-    if (jj_3_15()) {
-    jj_scanpos = xsp;
-    if (jj_3R_34()) {
-    jj_scanpos = xsp;
-    if (jj_3R_35()) return true;
-    }
-    }
-    }
-    }
-    }
-    }
-    }
-    return false;
-  }
-
-  private boolean jj_3R_24() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_4()) {
-    jj_scanpos = xsp;
-    if (jj_3R_36()) {
-    jj_scanpos = xsp;
-    if (jj_3R_37()) {
-    jj_scanpos = xsp;
-    if (jj_3R_38()) return true;
-    }
-    }
-    }
-    return false;
-  }
-
-  private boolean jj_3R_46() {
-    if (jj_scan_token(NEW)) return true;
-    if (jj_3R_20()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    if (jj_scan_token(RPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_14() {
-    if (jj_scan_token(CLASS)) return true;
-    if (jj_3R_20()) return true;
-    if (jj_scan_token(LBRACE)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_61() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LT)) return true;
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_16() {
-    if (jj_3R_20()) return true;
-    if (jj_scan_token(ASSIGN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_28() {
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_27() {
-    if (jj_3R_41()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_18() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_27()) {
-    jj_scanpos = xsp;
-    if (jj_3R_28()) return true;
-    }
-    return false;
-  }
-
-  private boolean jj_3R_60() {
-    if (jj_3R_18()) return true;
-    if (jj_scan_token(AND)) return true;
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_23() {
-    if (jj_scan_token(NEW)) return true;
-    if (jj_scan_token(INTEGER)) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    if (jj_3R_50()) return true;
-    if (jj_scan_token(RSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3_2() {
-    if (jj_3R_14()) return true;
-    return false;
-  }
-
-  private boolean jj_3_14() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_3R_20()) return true;
-    if (jj_scan_token(LPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_72() {
-    if (jj_scan_token(47)) return true;
-    if (jj_3R_50()) return true;
-    return false;
-  }
-
-  private boolean jj_3_13() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(DOT)) return true;
-    if (jj_scan_token(LENGTH)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_59() {
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
-  private boolean jj_3_12() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(LSQPAREN)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_58() {
-    if (jj_3R_67()) return true;
-    return false;
-  }
-
-  private boolean jj_3_11() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(48)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_57() {
-    if (jj_3R_66()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_71() {
-    if (jj_3R_72()) return true;
-    return false;
-  }
-
-  private boolean jj_3_10() {
-    if (jj_3R_19()) return true;
-    if (jj_scan_token(MINUS)) return true;
-    return false;
-  }
-
   /** Generated Token Manager. */
   public MiniJavaParserTokenManager token_source;
   JavaCharStream jj_input_stream;
@@ -1838,10 +1147,8 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   /** Next token. */
   public Token jj_nt;
   private int jj_ntk;
-  private Token jj_scanpos, jj_lastpos;
-  private int jj_la;
   private int jj_gen;
-  final private int[] jj_la1 = new int[21];
+  final private int[] jj_la1 = new int[13];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static {
@@ -1849,14 +1156,11 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       jj_la1_init_1();
    }
    private static void jj_la1_init_0() {
-      jj_la1_0 = new int[] {0x1000000,0x60002000,0x1000000,0x80800000,0x0,0x80800000,0x0,0x80800000,0x60002000,0x0,0x80800000,0x80800000,0x2000,0x60000000,0x60002000,0x10400200,0x10400200,0x0,0x10400200,0x10000000,0x200,};
+      jj_la1_0 = new int[] {0x1000000,0x0,0x0,0x0,0x80800000,0x80800000,0x2000,0x60000000,0x0,0x400000,0x10000000,0x200,0x0,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x0,0x1200,0x0,0x1000,0x8,0x1000,0x8,0x1000,0x1200,0x8000,0x1000,0x0,0x0,0x200,0x1200,0x1984,0x1984,0x8000,0x1984,0x1980,0x4,};
+      jj_la1_1 = new int[] {0x0,0x8,0x8,0x8000,0x1000,0x0,0x0,0x200,0x8000,0x0,0x1980,0x4,0x4,};
    }
-  final private JJCalls[] jj_2_rtns = new JJCalls[17];
-  private boolean jj_rescan = false;
-  private int jj_gc = 0;
 
   /** Constructor with InputStream. */
   public MiniJavaParser(java.io.InputStream stream) {
@@ -1869,8 +1173,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 21; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 13; i++) jj_la1[i] = -1;
   }
 
   /** Reinitialise. */
@@ -1884,8 +1187,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 21; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 13; i++) jj_la1[i] = -1;
   }
 
   /** Constructor. */
@@ -1895,8 +1197,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 21; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 13; i++) jj_la1[i] = -1;
   }
 
   /** Reinitialise. */
@@ -1906,8 +1207,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 21; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 13; i++) jj_la1[i] = -1;
   }
 
   /** Constructor with generated Token Manager. */
@@ -1916,8 +1216,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 21; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 13; i++) jj_la1[i] = -1;
   }
 
   /** Reinitialise. */
@@ -1926,8 +1225,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 21; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 13; i++) jj_la1[i] = -1;
   }
 
   private Token jj_consume_token(int kind) throws ParseException {
@@ -1937,16 +1235,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     jj_ntk = -1;
     if (token.kind == kind) {
       jj_gen++;
-      if (++jj_gc > 100) {
-        jj_gc = 0;
-        for (int i = 0; i < jj_2_rtns.length; i++) {
-          JJCalls c = jj_2_rtns[i];
-          while (c != null) {
-            if (c.gen < jj_gen) c.first = null;
-            c = c.next;
-          }
-        }
-      }
       return token;
     }
     token = oldToken;
@@ -1954,29 +1242,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
     throw generateParseException();
   }
 
-  static private final class LookaheadSuccess extends java.lang.Error { }
-  final private LookaheadSuccess jj_ls = new LookaheadSuccess();
-  private boolean jj_scan_token(int kind) {
-    if (jj_scanpos == jj_lastpos) {
-      jj_la--;
-      if (jj_scanpos.next == null) {
-        jj_lastpos = jj_scanpos = jj_scanpos.next = token_source.getNextToken();
-      } else {
-        jj_lastpos = jj_scanpos = jj_scanpos.next;
-      }
-    } else {
-      jj_scanpos = jj_scanpos.next;
-    }
-    if (jj_rescan) {
-      int i = 0; Token tok = token;
-      while (tok != null && tok != jj_scanpos) { i++; tok = tok.next; }
-      if (tok != null) jj_add_error_token(kind, i);
-    }
-    if (jj_scanpos.kind != kind) return true;
-    if (jj_la == 0 && jj_scanpos == jj_lastpos) throw jj_ls;
-    return false;
-  }
-
 
 /** Get the next Token. */
   final public Token getNextToken() {
@@ -2007,33 +1272,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
   private int[] jj_expentry;
   private int jj_kind = -1;
-  private int[] jj_lasttokens = new int[100];
-  private int jj_endpos;
-
-  private void jj_add_error_token(int kind, int pos) {
-    if (pos >= 100) return;
-    if (pos == jj_endpos + 1) {
-      jj_lasttokens[jj_endpos++] = kind;
-    } else if (jj_endpos != 0) {
-      jj_expentry = new int[jj_endpos];
-      for (int i = 0; i < jj_endpos; i++) {
-        jj_expentry[i] = jj_lasttokens[i];
-      }
-      jj_entries_loop: for (java.util.Iterator<?> it = jj_expentries.iterator(); it.hasNext();) {
-        int[] oldentry = (int[])(it.next());
-        if (oldentry.length == jj_expentry.length) {
-          for (int i = 0; i < jj_expentry.length; i++) {
-            if (oldentry[i] != jj_expentry[i]) {
-              continue jj_entries_loop;
-            }
-          }
-          jj_expentries.add(jj_expentry);
-          break jj_entries_loop;
-        }
-      }
-      if (pos != 0) jj_lasttokens[(jj_endpos = pos) - 1] = kind;
-    }
-  }
 
   /** Generate ParseException. */
   public ParseException generateParseException() {
@@ -2043,7 +1281,7 @@ public class MiniJavaParser implements MiniJavaParserConstants {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
     }
-    for (int i = 0; i < 21; i++) {
+    for (int i = 0; i < 13; i++) {
       if (jj_la1[i] == jj_gen) {
         for (int j = 0; j < 32; j++) {
           if ((jj_la1_0[i] & (1<<j)) != 0) {
@@ -2062,9 +1300,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
         jj_expentries.add(jj_expentry);
       }
     }
-    jj_endpos = 0;
-    jj_rescan_token();
-    jj_add_error_token(0, 0);
     int[][] exptokseq = new int[jj_expentries.size()][];
     for (int i = 0; i < jj_expentries.size(); i++) {
       exptokseq[i] = jj_expentries.get(i);
@@ -2080,57 +1315,6 @@ public class MiniJavaParser implements MiniJavaParserConstants {
   final public void disable_tracing() {
   }
 
-  private void jj_rescan_token() {
-    jj_rescan = true;
-    for (int i = 0; i < 17; i++) {
-    try {
-      JJCalls p = jj_2_rtns[i];
-      do {
-        if (p.gen > jj_gen) {
-          jj_la = p.arg; jj_lastpos = jj_scanpos = p.first;
-          switch (i) {
-            case 0: jj_3_1(); break;
-            case 1: jj_3_2(); break;
-            case 2: jj_3_3(); break;
-            case 3: jj_3_4(); break;
-            case 4: jj_3_5(); break;
-            case 5: jj_3_6(); break;
-            case 6: jj_3_7(); break;
-            case 7: jj_3_8(); break;
-            case 8: jj_3_9(); break;
-            case 9: jj_3_10(); break;
-            case 10: jj_3_11(); break;
-            case 11: jj_3_12(); break;
-            case 12: jj_3_13(); break;
-            case 13: jj_3_14(); break;
-            case 14: jj_3_15(); break;
-            case 15: jj_3_16(); break;
-            case 16: jj_3_17(); break;
-          }
-        }
-        p = p.next;
-      } while (p != null);
-      } catch(LookaheadSuccess ls) { }
-    }
-    jj_rescan = false;
-  }
-
-  private void jj_save(int index, int xla) {
-    JJCalls p = jj_2_rtns[index];
-    while (p.gen > jj_gen) {
-      if (p.next == null) { p = p.next = new JJCalls(); break; }
-      p = p.next;
-    }
-    p.gen = jj_gen + xla - jj_la; p.first = token; p.arg = xla;
-  }
-
-  static final class JJCalls {
-    int gen;
-    Token first;
-    int arg;
-    JJCalls next;
-  }
-
 }
 
 class JTBToolkit {
@@ -0,0 +1,349 @@
+import java.util.*;
+
+// Checks the statements and expressions of a program against its declarations, walking the Flat_ast
+// down from every method and working out the type of every expression on the way back up
+class MyVisitor {
+
+    // classes, methods and variables of the program, collected by the declaration pass
+    Symbol_table symbols;
+    // the scopes of the current class and function
+    Scope scope;
+    // the program, or the class being checked, its names have the same ids in symbols
+    private Flat_ast ast;
+
+    public MyVisitor(Flat_ast ast, Symbol_table symbols)
+    {
+        this(symbols);
+        this.ast = ast;
+    }
+
+    // checks classes handed over one at a time, see walk(Flat_ast, int)
+    public MyVisitor(Symbol_table symbols)
+    {
+        this.symbols = symbols;
+        scope = new Scope(symbols);
+    }
+
+    // checks the whole program
+    public void walk() throws Exception {
+
+        int goal = ast.root();
+        for(int i = 0; i < ast.count(goal); i++) walk(ast, ast.child(goal, i));
+    }
+
+    // checks class n of ast, the main class or any other, against the declarations of the whole program
+    public void walk(Flat_ast ast, int n) throws Exception {
+
+        this.ast = ast;
+        if(ast.kind(n) == Flat_ast.MAIN_CLASS) main_class(n);
+        else class_declaration(n);
+    }
+
+    // class Identifier { public static void main ( String [ ] Identifier ) { VarDeclaration* Statement* } }
+    private void main_class(int n) throws Exception {
+
+       Class_info info = symbols.class_of(ast.value(n));
+       scope.open_class(info);
+
+       // we are inside the main function
+       scope.open_method(symbols.own_method(info, "main"));
+
+       // the declarations have been collected already, only the statements are left to check
+       statements(ast.child(n, 2));
+
+       scope.close_class();
+    }
+
+    // class Identifier [ extends Identifier ] { VarDeclaration* MethodDeclaration* }
+    private void class_declaration(int n) throws Exception {
+
+        scope.open_class(symbols.class_of(ast.value(n)));
+
+        int methods = ast.child(n, 1);
+        for(int i = 0; i < ast.count(methods); i++) method_declaration(ast.child(methods, i));
+
+        scope.close_class();
+    }
+
+    // public Type Identifier ( FormalParameterList? ) { VarDeclaration* Statement* return Expression ; }
+    private void method_declaration(int n) throws Exception {
+
+        Method_info method = symbols.own_method(scope.current_class, ast.name(n));
+        scope.open_method(method);
+
+        statements(ast.child(n, 3));
+
+        Expr_info returned = expression(ast.child(n, 4));
+
+        // checking if the thing the function returns the same type of thing as it is
+        if(!is_assignable(returned.type, method.type)) throw new ParseException("Semantic Error, wrong return type");
+
+        // the variables of the function go out of scope
+        scope.close_method();
+    }
+
+    // the statements of a block or a list, in order
+    private void statements(int n) throws Exception {
+
+        for(int i = 0; i < ast.count(n); i++) statement(ast.child(n, i));
+    }
+
+    private void statement(int n) throws Exception {
+
+        switch(ast.kind(n))
+        {
+            case Flat_ast.BLOCK:
+                statements(n);
+                break;
+            case Flat_ast.ASSIGN:
+                assignment(n);
+                break;
+            case Flat_ast.ARRAY_ASSIGN:
+                array_assignment(n);
+                break;
+            case Flat_ast.IF:
+            {
+                Expr_info condition = expression(ast.child(n, 0));
+                expect(condition, "boolean", condition.describe() + " is not boolean");
+
+                statement(ast.child(n, 1));
+                statement(ast.child(n, 2));
+                break;
+            }
+            case Flat_ast.WHILE:
+            {
+                Expr_info condition = expression(ast.child(n, 0));
+                expect(condition, "boolean", condition.describe() + " is not boolean");
+
+                statement(ast.child(n, 1));
+                break;
+            }
+            case Flat_ast.PRINT:
+            {
+                // checking if what is printed is integer
+                Expr_info printed = expression(ast.child(n, 0));
+                expect(printed, "int", printed.describe() + " is not integer");
+                break;
+            }
+            default:
+                throw new IllegalStateException("node " + n + " is not a statement");
+        }
+    }
+
+    // Identifier = Expression ;
+    private void assignment(int n) throws Exception {
+
+        // Checking if the identifier on the assigned end has been declared in current or parent scopes or not
+        Expr_info to_be_assigned = variable(n);
+        Expr_info assignment = expression(ast.child(n, 0));
+
+        // Checking if we have allocated an array to a non array variable
+        if(assignment.kind == Expr_info.ARRAY_ALLOCATION && !is_array(to_be_assigned.type)) throw new ParseException("Semantic Error, wrong allocation");
+
+        // Checking if both ends of the assignment have the same type, or the value is of a subclass
+        if(!is_assignable(assignment.type, to_be_assigned.type)) throw new ParseException("Semantic Error, wrong assignment type " + to_be_assigned.describe() + " and " + assignment.describe());
+    }
+
+    // Identifier [ Expression ] = Expression ;
+    private void array_assignment(int n) throws Exception {
+
+        // Checking if the variable to be assigned is an array variable or not
+        Expr_info to_be_assigned = variable(n);
+        if(!is_array(to_be_assigned.type)) throw new ParseException("Semantic Error, wrong assignment type " + to_be_assigned.describe());
+
+        // Checking if the index is integer or not
+        Expr_info index = expression(ast.child(n, 0));
+        expect(index, "int", index.describe() + " is not integer");
+
+        // Checking if the element and the assigned value have the same type
+        Expr_info assignment = expression(ast.child(n, 1));
+        expect(assignment, element_type(to_be_assigned.type), "wrong assignment type " + to_be_assigned.describe() + " and " + assignment.describe());
+    }
+
+    private Expr_info expression(int n) throws Exception {
+
+        switch(ast.kind(n))
+        {
+            case Flat_ast.AND:
+                expect(expression(ast.child(n, 0)), "boolean", "wrong logical and");
+                expect(expression(ast.child(n, 1)), "boolean", "wrong logical and");
+                return Expr_info.BOOLEAN;
+            case Flat_ast.LESS:
+                expect(expression(ast.child(n, 0)), "int", "wrong comparison");
+                expect(expression(ast.child(n, 1)), "int", "wrong comparison");
+                return Expr_info.BOOLEAN;
+            case Flat_ast.PLUS:
+                expect(expression(ast.child(n, 0)), "int", "wrong addition");
+                expect(expression(ast.child(n, 1)), "int", "wrong addition");
+                return Expr_info.INT;
+            case Flat_ast.MINUS:
+                expect(expression(ast.child(n, 0)), "int", "wrong subtraction");
+                expect(expression(ast.child(n, 1)), "int", "wrong subtraction");
+                return Expr_info.INT;
+            case Flat_ast.TIMES:
+                // Checking if all multiplication terms are integers
+                expect(expression(ast.child(n, 0)), "int", "wrong multiplication");
+                expect(expression(ast.child(n, 1)), "int", "wrong multiplication");
+                return Expr_info.INT;
+            case Flat_ast.ARRAY_LOOKUP:
+                return array_lookup(n);
+            case Flat_ast.ARRAY_LENGTH:
+            {
+                Expr_info array = expression(ast.child(n, 0));
+                if(!is_array(array.type)) throw new ParseException("Semantic Error, wrong type " + array.describe());
+                return Expr_info.INT;
+            }
+            case Flat_ast.CALL:
+                return call(n);
+            case Flat_ast.INTEGER:
+                return Expr_info.INT;
+            case Flat_ast.TRUE:
+            case Flat_ast.FALSE:
+                return Expr_info.BOOLEAN;
+            case Flat_ast.IDENTIFIER:
+                return variable(n);
+            case Flat_ast.THIS:
+                // this is an object of the class we are in
+                return new Expr_info(scope.current_class.name, Expr_info.THIS, "this");
+            case Flat_ast.NEW_BOOLEAN_ARRAY:
+            case Flat_ast.NEW_INT_ARRAY:
+            {
+                Expr_info size = expression(ast.child(n, 0));
+                expect(size, "int", size.describe() + " is not integer");
+
+                return ast.kind(n) == Flat_ast.NEW_INT_ARRAY ? Expr_info.NEW_INT_ARRAY : Expr_info.NEW_BOOLEAN_ARRAY;
+            }
+            case Flat_ast.NEW:
+            {
+                String classname = ast.name(n);
+                if(symbols.class_of(ast.value(n)) == null) throw new ParseException("Semantic Error, Class: " + classname + " undeclared");
+
+                return new Expr_info(classname, Expr_info.ALLOCATION, null);
+            }
+            case Flat_ast.NOT:
+                expect(expression(ast.child(n, 0)), "boolean", "wrong negation");
+                return Expr_info.BOOLEAN;
+            default:
+                throw new IllegalStateException("node " + n + " is not an expression");
+        }
+    }
+
+    // PrimaryExpression [ PrimaryExpression ]
+    private Expr_info array_lookup(int n) throws Exception {
+
+        // checking if the looked up expression is an array or not
+        Expr_info array = expression(ast.child(n, 0));
+        if(!is_array(array.type)) throw new ParseException("Semantic Error, wrong type " + array.describe());
+
+        Expr_info index = expression(ast.child(n, 1));
+        expect(index, "int", index.describe() + " is not integer");
+
+        // an int[] holds int and a boolean[] holds boolean
+        return element_type(array.type).equals("int") ? Expr_info.INT : Expr_info.BOOLEAN;
+    }
+
+    // PrimaryExpression . Identifier ( ExpressionList? )
+    private Expr_info call(int n) throws Exception {
+
+        // the method is looked up in the class of the object, and in the classes it inherits from
+        Expr_info object = expression(ast.child(n, 0));
+        Class_info info = symbols.class_of(object.type);
+        if(info == null) throw new ParseException("Semantic Error, " + object.describe() + " is not an object");
+
+        String name = ast.name(n);
+        Method_info method = symbols.find_method(info, name);
+        if(method == null) throw new ParseException("Semantic Error, function " + name + " undeclared in " + info.name);
+
+        // checking the arguments against the parameters, one by one
+        List<Expr_info> arguments = new ArrayList<Expr_info>();
+        for(int i = 1; i < ast.count(n); i++) arguments.add(expression(ast.child(n, i)));
+
+        if(arguments.size() != method.params.size()) throw new ParseException("Semantic Error, wrong number of arguments for " + name);
+        for(int i = 0; i < arguments.size(); i++)
+        {
+            Var_info param = method.params.get(i);
+            if(!is_assignable(arguments.get(i).type, param.type)) throw new ParseException("Semantic Error, wrong argument type " + arguments.get(i).describe() + " for " + param.name);
+        }
+
+        return new Expr_info(method.type, Expr_info.CALL, null);
+    }
+
+    // the variable a node names, every identifier in a statement or an expression is one
+    private Expr_info variable(int n) throws Exception {
+
+        String name = ast.name(n);
+
+        // it might be declared inside the function or inside the class and its parents
+        Var_info v = scope.lookup(ast.value(n));
+        if(v == null) throw new ParseException("Semantic Error, " + name + " undeclared");
+
+        return new Expr_info(v.type, Expr_info.VARIABLE, name);
+    }
+
+    // throws the given semantic error unless the expression has the given type
+    private void expect(Expr_info e, String type, String error) throws ParseException{
+
+        if(!e.type.equals(type)) throw new ParseException("Semantic Error, " + error);
+    }
+
+    // checking if given type is an array
+    private boolean is_array(String type){
+
+        return type.equals("int[]") || type.equals("boolean[]");
+    }
+
+    // the type of the elements of an array type
+    private String element_type(String array_type){
+
+        return array_type.substring(0, array_type.length() - 2);
+    }
+
+    // checking if a value of type from can be stored where type to is expected, objects of a subclass can
+    private boolean is_assignable(String from, String to){
+
+        if(from.equals(to)) return true;
+
+        Class_info target = symbols.class_of(to);
+        if(target == null) return false;
+        for(Class_info c = symbols.class_of(from); c != null; c = c.parent())
+        {
+            if(c == target) return true;
+        }
+        return false;
+    }
+}
+
+// What the semantic check knows about an expression: its MiniJava type and what kind of expression it is
+class Expr_info
+{
+    static final int VALUE = 0;
+    static final int VARIABLE = 1;
+    static final int THIS = 2;
+    static final int CALL = 3;
+    static final int ALLOCATION = 4;
+    static final int ARRAY_ALLOCATION = 5;
+
+    // the results of literals and operators carry nothing else, so they are shared
+    static final Expr_info INT = new Expr_info("int", VALUE, null);
+    static final Expr_info BOOLEAN = new Expr_info("boolean", VALUE, null);
+    static final Expr_info NEW_INT_ARRAY = new Expr_info("int[]", ARRAY_ALLOCATION, null);
+    static final Expr_info NEW_BOOLEAN_ARRAY = new Expr_info("boolean[]", ARRAY_ALLOCATION, null);
+
+    public final String type;
+    public final int kind;
+    // name of the variable, "this" or null, for the error messages
+    public final String name;
+
+    public Expr_info(String type, int kind, String name)
+    {
+        this.type = type;
+        this.kind = kind;
+        this.name = name;
+    }
+
+    // how the expression is called in error messages, by its name if it has one or else by its type
+    public String describe()
+    {
+        return name != null ? name : "expression of type " + type;
+    }
+}
@@ -0,0 +1,50 @@
+import java.util.*;
+
+// The identifiers of a program interned to int ids, in the order they were first seen.
+//
+// The Flat_ast a program is lowered to and the Symbol_table its declarations go into intern into
+// the same table, so an identifier has one id wherever it is met. When a program is compiled a
+// class at a time the trees of all its classes share one table too, and the ids in any of them are
+// the ids in the Symbol_table.
+class Name_table
+{
+    private final Map<String, Integer> ids;
+    // names.get(id) is the identifier with that id
+    private final List<String> names;
+
+    public Name_table()
+    {
+        ids = new HashMap<String, Integer>();
+        names = new ArrayList<String>();
+    }
+
+    // the id of an identifier, a new one the first time it is seen
+    public int intern(String name)
+    {
+        Integer id = ids.get(name);
+        if(id != null) return id;
+
+        id = names.size();
+        ids.put(name, id);
+        names.add(name);
+        return id;
+    }
+
+    // the id of an identifier, -1 when it was never interned
+    public int id(String name)
+    {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public String name(int id)
+    {
+        return names.get(id);
+    }
+
+    // number of identifiers interned so far
+    public int size()
+    {
+        return names.size();
+    }
+}
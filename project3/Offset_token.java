@@ -0,0 +1,15 @@
+// A token read without its position, which Ascii_token_manager works out from offset only when an
+// error reports it. Until then its line is 0, which no token read with its position has.
+class Offset_token extends Token
+{
+    private static final long serialVersionUID = 1L;
+
+    // where the token starts in the source
+    final int offset;
+
+    public Offset_token(int kind, String image, int offset)
+    {
+        super(kind, image);
+        this.offset = offset;
+    }
+}
@@ -0,0 +1,128 @@
+// A value in the generated IR, what the codegen visits return for every expression.
+//
+// An operand is one of four things:
+//   CONSTANT  an immediate, written as its number (booleans are the bytes 1 and 0, a bit is true or
+//             false and a pointer 0 is null)
+//   VALUE     a numbered temporary register, %<reg>
+//   SLOT      the stack slot of a field, %<name>, holding a value of its type
+//   ARGUMENT  a parameter of the function, %<name>
+// Parameters and locals are not kept in memory, a variable stands for whichever of these it was
+// last given. Operands never change once made, so the shared constants and the slots can be
+// handed out freely.
+final class Operand
+{
+    enum Kind { CONSTANT, VALUE, SLOT, ARGUMENT }
+
+    // the LLVM types the generated code uses, booleans are bytes and objects are plain i8*
+    enum IR_type
+    {
+        I1("i1"),
+        I8("i8"),
+        I32("i32"),
+        I8_PTR("i8*"),
+        I32_PTR("i32*");
+
+        // how the type is written, and how a pointer to it is written
+        final String name;
+        final String pointer;
+
+        IR_type(String name)
+        {
+            this.name = name;
+            this.pointer = name + "*";
+        }
+
+        boolean is_pointer()
+        {
+            return this == I8_PTR || this == I32_PTR;
+        }
+
+        // the type of the elements of an array type
+        IR_type element()
+        {
+            switch(this)
+            {
+                case I8_PTR: return I8;
+                case I32_PTR: return I32;
+                default: throw new IllegalStateException(name + " is not an array type");
+            }
+        }
+
+        // the type of the values of a MiniJava type
+        static IR_type of(String type)
+        {
+            switch(type)
+            {
+                case "int": return I32;
+                case "boolean": return I8;
+                case "int[]": return I32_PTR;
+                default: return I8_PTR;
+            }
+        }
+    }
+
+    static final Operand TRUE = constant(IR_type.I8, 1);
+    static final Operand FALSE = constant(IR_type.I8, 0);
+
+    final Kind kind;
+    // type of the value, for a slot the type of what it holds
+    final IR_type type;
+    // the immediate of a constant and the register number of a value
+    final int number;
+    // the variable of a slot
+    final Var_info var;
+    // length of an array that is known where it was allocated, null otherwise
+    final Operand length;
+
+    private Operand(Kind kind, IR_type type, int number, Var_info var, Operand length)
+    {
+        this.kind = kind;
+        this.type = type;
+        this.number = number;
+        this.var = var;
+        this.length = length;
+    }
+
+    static Operand constant(IR_type type, int value)
+    {
+        return new Operand(Kind.CONSTANT, type, value, null, null);
+    }
+
+    static Operand value(IR_type type, int reg)
+    {
+        return new Operand(Kind.VALUE, type, reg, null, null);
+    }
+
+    // an array in a register, with its length when that is known
+    static Operand value(IR_type type, int reg, Operand length)
+    {
+        return new Operand(Kind.VALUE, type, reg, null, length);
+    }
+
+    static Operand slot(Var_info var)
+    {
+        return new Operand(Kind.SLOT, IR_type.of(var.type), 0, var, null);
+    }
+
+    static Operand argument(Var_info var)
+    {
+        return new Operand(Kind.ARGUMENT, IR_type.of(var.type), 0, var, null);
+    }
+
+    // the value a local has before anything is assigned to it
+    static Operand zero(IR_type type)
+    {
+        return constant(type, 0);
+    }
+
+    boolean is_constant()
+    {
+        return kind == Kind.CONSTANT;
+    }
+
+    // whether the two stand for the same value, so that where they meet no phi is needed
+    boolean same(Operand o)
+    {
+        return this == o || kind == o.kind && type == o.type && number == o.number && var == o.var;
+    }
+}
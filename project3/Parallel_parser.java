@@ -0,0 +1,300 @@
+import syntaxtree.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Parses a large source on a ForkJoinPool, split where its top level classes start.
+//
+// The bytes are scanned once for the word class outside of any braces and comments, which is
+// where a TypeDeclaration can start, keeping count of lines and columns the way the token managers
+// do. Runs of classes about CHUNK_BYTES long are then parsed by a MiniJavaParser each, over an
+// Ascii_token_manager that starts at the first of them with the line and column it has in the whole
+// source, so every token gets the position it gets when the source is parsed in one go. The main
+// class is parsed with the first run, and the declarations of all the runs go into one Goal in
+// source order.
+//
+// Only a source the fast token manager reads all the way is split: an escape, a non ASCII byte or a
+// "/**/" could make the tokens differ from what a scan of the bytes sees. When a run does not parse,
+// or does not end right where the next one starts, the whole source is parsed again on one thread,
+// so a wrong program gets the same error, at the same position, as it always did.
+class Parallel_parser implements MiniJavaParserConstants
+{
+    // sources smaller than this are parsed on one thread, splitting them would cost more than it saves
+    static final int MIN_BYTES = 1 << 20;
+    // bytes of classes a run is cut after, enough of them that the runs keep every worker busy
+    private static final int CHUNK_BYTES = 256 << 10;
+
+    private static final byte[] CLASS_BYTES = { 'c', 'l', 'a', 's', 's' };
+
+    private final ByteBuffer data;
+    private final int limit;
+    private final ForkJoinPool pool;
+
+    // offset, line and column of every class at the top level, the main class included
+    private int[] offsets;
+    private int[] lines;
+    private int[] columns;
+    private int count;
+
+    // tokens read to build the tree that was returned
+    long tokens;
+
+    // a pool of null parses everything on the calling thread
+    public Parallel_parser(ByteBuffer data, ForkJoinPool pool)
+    {
+        this.data = data;
+        this.limit = data.limit();
+        this.pool = pool;
+        offsets = new int[64];
+        lines = new int[64];
+        columns = new int[64];
+        count = 0;
+    }
+
+    // the tree of the whole source, built in runs on the pool when the source is worth splitting
+    public Goal parse() throws ParseException
+    {
+        if(pool == null || limit < MIN_BYTES || !scan()) return sequential();
+
+        Run[] runs = runs();
+        if(runs.length < 2) return sequential();
+
+        pool.invoke(new Parse_task(runs, 0, runs.length));
+
+        // every run but the last reads an end of file the whole source does not have
+        long read = 1 - runs.length;
+        for(Run run: runs)
+        {
+            if(run.failed) return sequential();
+            read += run.tokens;
+        }
+
+        NodeListOptional classes = new NodeListOptional();
+        for(Run run: runs)
+        {
+            for(TypeDeclaration c: run.classes) classes.addNode(c);
+        }
+        classes.nodes.trimToSize();
+
+        // the end of file is moved on by a column and made a NodeToken, like Goal does
+        Token eof = runs[runs.length - 1].eof;
+        eof.beginColumn++;
+        eof.endColumn++;
+
+        tokens = read;
+        return new Goal(runs[0].main, classes, new NodeToken(eof.image.intern(), eof.kind, eof.beginLine, eof.beginColumn, eof.endLine, eof.endColumn));
+    }
+
+    private Goal sequential() throws ParseException
+    {
+        Pooled_parser pooled = Pooled_parser.acquire(data);
+        try{
+            return pooled.parser.Goal();
+        }
+        catch(ParseException ex){
+            throw pooled.lexer.locate(ex);
+        }
+        finally{
+            tokens = pooled.lexer.tokens;
+            pooled.release();
+        }
+    }
+
+    // finds the top level classes, false when the source cannot be split by its bytes
+    private boolean scan()
+    {
+        final int CODE = 0, LINE_COMMENT = 1, COMMENT = 2;
+        int state = CODE;
+        // in a comment, whether the last byte was a star that can close it
+        boolean star = false;
+        int depth = 0;
+
+        // the line, and a character on it that columns are counted from, as in Ascii_token_manager
+        int line = 1;
+        int base = -1;
+        int base_column = 0;
+
+        for(int p = 0; p < limit; p++)
+        {
+            int b = data.get(p) & 0xff;
+            if(b >= 0x80 || b == '\\') return false;
+
+            if(b == '\n' || b == '\r')
+            {
+                if(b == '\r' && p + 1 < limit && data.get(p + 1) == '\n') p++;
+                line++;
+                base = p;
+                base_column = 0;
+                star = false;
+                if(state == LINE_COMMENT) state = CODE;
+                continue;
+            }
+            if(b == '\t')
+            {
+                int before = base_column + p - base - 1;
+                base_column = before + 8 - before % 8;
+                base = p;
+                star = false;
+                continue;
+            }
+
+            switch(state)
+            {
+                case LINE_COMMENT:
+                    break;
+                case COMMENT:
+                    if(star && b == '/') state = CODE;
+                    star = b == '*';
+                    break;
+                default:
+                    if(b == '/' && p + 1 < limit)
+                    {
+                        byte second = data.get(p + 1);
+                        if(second == '/') state = LINE_COMMENT;
+                        else if(second == '*')
+                        {
+                            // the token managers do not agree on where "/**/" ends
+                            if(p + 3 < limit && data.get(p + 2) == '*' && data.get(p + 3) == '/') return false;
+                            state = COMMENT;
+                            star = false;
+                        }
+                        // the star that opens a comment cannot close it
+                        if(state != CODE) p++;
+                    }
+                    else if(b == '{') depth++;
+                    else if(b == '}') depth--;
+                    else if(b == 'c' && depth == 0 && is_class(p))
+                    {
+                        add(p, line, base_column + p - base);
+                        p += CLASS_BYTES.length - 1;
+                    }
+            }
+        }
+        return true;
+    }
+
+    // whether the word class starts at p and is not part of a longer word
+    private boolean is_class(int p)
+    {
+        if(p + CLASS_BYTES.length > limit) return false;
+        if(p > 0 && is_word(data.get(p - 1) & 0xff)) return false;
+        for(int i = 1; i < CLASS_BYTES.length; i++)
+        {
+            if(data.get(p + i) != CLASS_BYTES[i]) return false;
+        }
+        return p + CLASS_BYTES.length == limit || !is_word(data.get(p + CLASS_BYTES.length) & 0xff);
+    }
+
+    private static boolean is_word(int b)
+    {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b == '$';
+    }
+
+    private void add(int offset, int line, int column)
+    {
+        if(count == offsets.length)
+        {
+            offsets = Arrays.copyOf(offsets, 2 * count);
+            lines = Arrays.copyOf(lines, 2 * count);
+            columns = Arrays.copyOf(columns, 2 * count);
+        }
+        offsets[count] = offset;
+        lines[count] = line;
+        columns[count] = column;
+        count++;
+    }
+
+    // cuts the source into runs of whole classes, the first one starting at the start of the source with the main class
+    private Run[] runs()
+    {
+        List<Run> runs = new ArrayList<Run>();
+        Run run = new Run(0, 1, 1);
+        // the first class at the top level is the main class, the others can start a run
+        for(int i = 1; i < count; i++)
+        {
+            if(offsets[i] - run.start < CHUNK_BYTES) continue;
+
+            run.end = offsets[i];
+            runs.add(run);
+            run = new Run(offsets[i], lines[i], columns[i]);
+        }
+        run.end = limit;
+        runs.add(run);
+        return runs.toArray(new Run[runs.size()]);
+    }
+
+    // parses a run, marking it failed when it is not the main class or whole classes up to its end
+    private void parse(Run run)
+    {
+        Pooled_parser pooled = Pooled_parser.acquire(data, run.start, run.end, run.line, run.column);
+        MiniJavaParser parser = pooled.parser;
+        try{
+            if(run.start == 0) run.main = parser.MainClass();
+            while(parser.getToken(1).kind == CLASS) run.classes.add(parser.TypeDeclaration());
+
+            run.eof = parser.getNextToken();
+            run.failed = run.eof.kind != EOF;
+        }
+        catch(ParseException | TokenMgrError ex){
+            run.failed = true;
+        }
+        finally{
+            run.tokens = pooled.lexer.tokens;
+            pooled.release();
+        }
+    }
+
+    // the part of the source one parser reads, and what it made of it
+    private static class Run
+    {
+        final int start;
+        final int line;
+        final int column;
+        int end;
+
+        MainClass main;
+        final List<TypeDeclaration> classes;
+        Token eof;
+        boolean failed;
+        long tokens;
+
+        Run(int start, int line, int column)
+        {
+            this.start = start;
+            this.line = line;
+            this.column = column;
+            classes = new ArrayList<TypeDeclaration>();
+        }
+    }
+
+    // parses runs from..to, halving them until there is one left
+    private class Parse_task extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Run[] runs;
+        private final int from;
+        private final int to;
+
+        Parse_task(Run[] runs, int from, int to)
+        {
+            this.runs = runs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(to - from == 1)
+            {
+                parse(runs[from]);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new Parse_task(runs, from, middle), new Parse_task(runs, middle, to));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+// Chooses between the alternatives of the grammar for MiniJavaParser.
+//
+// The grammar is not LL(1): its productions are the node classes of the syntax tree, and the
+// alternatives of Expression all start with a clause or a primary expression of any length. The
+// choices are semantic lookaheads answered here instead, none of them parses or changes the state of
+// the parser, and asking one again gives the same answer.
+//
+// Every choice but one is made from the next one to three tokens. The one in Expression has to
+// know what follows its first clause or primary expression, which may be a bracket of any length,
+// so brackets are skipped by counting them instead of parsing what is in them. Every bracket matched
+// is remembered with the token after it, and the expressions nested in it are decided later without
+// walking those tokens again, so a source is looked through a bounded number of times however deep
+// its expressions go.
+//
+// The tokens looked at are read into the parser's token list as getToken would, the parser then
+// consumes them from there. Only the brackets of the outermost bracket matched last are remembered,
+// any other is behind the parser already, so the tokens kept alive ahead of the parser are never
+// more than one bracketed expression however long the source is.
+class Parser_lookahead implements MiniJavaParserConstants
+{
+    // the alternatives of Expression
+    static final int CLAUSE = 0;
+    static final int AND_EXPRESSION = 1;
+    static final int COMPARE_EXPRESSION = 2;
+    static final int PLUS_EXPRESSION = 3;
+    static final int MINUS_EXPRESSION = 4;
+    static final int TIMES_EXPRESSION = 5;
+    static final int ARRAY_LOOKUP = 6;
+    static final int ARRAY_LENGTH = 7;
+    static final int MESSAGE_SEND = 8;
+
+    // "*" is not a named token
+    static final int TIMES = java.util.Arrays.asList(tokenImage).indexOf("\"*\"");
+
+    // the kinds of tokens that start a class, a statement, a type, a primary expression and an expression
+    private static final long CLASS_START = 1L << CLASS;
+    private static final long STATEMENT_START = 1L << LBRACE | 1L << IDENTIFIER | 1L << IF | 1L << WHILE | 1L << PRINT;
+    private static final long TYPE_START = 1L << INTEGER | 1L << BOOLEAN | 1L << IDENTIFIER;
+    private static final long PRIMARY_START = 1L << INTEGER_LITERAL | 1L << TRUE | 1L << FALSE | 1L << IDENTIFIER | 1L << THIS | 1L << NEW | 1L << LPAREN;
+    private static final long EXPRESSION_START = PRIMARY_START | 1L << NOT;
+
+    // above this many brackets remembered a new map is cheaper than clearing the table of the old one
+    private static final int FORGET_BY_CLEARING = 64;
+
+    private final MiniJavaParser parser;
+
+    // the token after the closing bracket of every bracket in the outermost one matched last
+    private HashMap<Token, Token> matched;
+    // brackets opened and not closed yet while matching
+    private final ArrayList<Token> opened;
+
+    // the token the Expression decided last starts after, and the alternative it starts
+    // every alternative of Expression asks, the first one works the answer out for the others
+    private Token decided_after;
+    private int decided;
+
+    // tokens looked at to choose between alternatives
+    long scans;
+
+    public Parser_lookahead(MiniJavaParser parser)
+    {
+        this.parser = parser;
+        matched = new HashMap<Token, Token>();
+        opened = new ArrayList<Token>();
+        decided_after = null;
+        decided = CLAUSE;
+    }
+
+    // forgets the brackets of the last source, for a parser that is started on another one
+    public void reset()
+    {
+        if(matched.size() > FORGET_BY_CLEARING) matched = new HashMap<Token, Token>();
+        else matched.clear();
+        opened.clear();
+        decided_after = null;
+        decided = CLAUSE;
+        scans = 0;
+    }
+
+    // kind of the k-th token ahead
+    public int peek(int k)
+    {
+        Token t = parser.token;
+        for(int i = 0; i < k; i++) t = next(t);
+        return t.kind;
+    }
+
+    public boolean starts_class()
+    {
+        return starts(CLASS_START);
+    }
+
+    public boolean starts_statement()
+    {
+        return starts(STATEMENT_START);
+    }
+
+    public boolean starts_type()
+    {
+        return starts(TYPE_START);
+    }
+
+    public boolean starts_expression()
+    {
+        return starts(EXPRESSION_START);
+    }
+
+    // class Identifier {, a class without a parent
+    public boolean class_declaration()
+    {
+        return peek(3) == LBRACE;
+    }
+
+    // a type and a name, no statement starts like that
+    public boolean var_declaration()
+    {
+        switch(peek(1))
+        {
+            case INTEGER:
+            case BOOLEAN:
+                int second = peek(2);
+                return second == LSQPAREN || second == IDENTIFIER;
+            case IDENTIFIER:
+                return peek(2) == IDENTIFIER;
+            default:
+                return false;
+        }
+    }
+
+    // int [ ] or boolean [ ]
+    public boolean array_type()
+    {
+        int first = peek(1);
+        return (first == INTEGER || first == BOOLEAN) && peek(2) == LSQPAREN && peek(3) == RSQPAREN;
+    }
+
+    // Identifier =
+    public boolean assignment()
+    {
+        return peek(1) == IDENTIFIER && peek(2) == ASSIGN;
+    }
+
+    // Identifier [
+    public boolean array_assignment()
+    {
+        return peek(1) == IDENTIFIER && peek(2) == LSQPAREN;
+    }
+
+    // new int [ or new boolean [
+    public boolean array_allocation()
+    {
+        if(peek(1) != NEW) return false;
+        int type = peek(2);
+        return (type == INTEGER || type == BOOLEAN) && peek(3) == LSQPAREN;
+    }
+
+    // new boolean [, once it is known to be an array allocation
+    public boolean boolean_array_allocation()
+    {
+        return peek(2) == BOOLEAN;
+    }
+
+    // which alternative of Expression the tokens ahead start, CLAUSE when it is none of the others
+    public int expression()
+    {
+        if(parser.token != decided_after)
+        {
+            decided = choose_expression();
+            decided_after = parser.token;
+        }
+        return decided;
+    }
+
+    private int choose_expression()
+    {
+        Token first = next(parser.token);
+        Token after = skip_clause(first);
+        if(after == null) return CLAUSE;
+        if(after.kind == AND) return AND_EXPRESSION;
+
+        // the rest start with a primary expression, which a "!" never starts
+        if(first.kind == NOT) return CLAUSE;
+        switch(after.kind)
+        {
+            case LT: return COMPARE_EXPRESSION;
+            case PLUS: return PLUS_EXPRESSION;
+            case MINUS: return MINUS_EXPRESSION;
+            case LSQPAREN: return ARRAY_LOOKUP;
+            case DOT:
+            {
+                Token member = next(after);
+                if(member.kind == LENGTH) return ARRAY_LENGTH;
+                if(member.kind == IDENTIFIER && next(member).kind == LPAREN) return MESSAGE_SEND;
+                return CLAUSE;
+            }
+            default:
+                return after.kind == TIMES ? TIMES_EXPRESSION : CLAUSE;
+        }
+    }
+
+    // whether the next token is one of a set of kinds
+    private boolean starts(long kinds)
+    {
+        return (kinds >>> peek(1) & 1) != 0;
+    }
+
+    // the token after t, read from the token manager when the parser has not got that far yet
+    private Token next(Token t)
+    {
+        scans++;
+        if(t.next == null) t.next = parser.token_source.getNextToken();
+        return t.next;
+    }
+
+    // the token after the clause starting at t, null when none starts there
+    private Token skip_clause(Token t)
+    {
+        while(t.kind == NOT) t = next(t);
+        return skip_primary(t);
+    }
+
+    // the token after the primary expression starting at t, null when none starts there
+    private Token skip_primary(Token t)
+    {
+        switch(t.kind)
+        {
+            case INTEGER_LITERAL:
+            case TRUE:
+            case FALSE:
+            case IDENTIFIER:
+            case THIS:
+                return next(t);
+            case LPAREN:
+                return skip_brackets(t);
+            case NEW:
+            {
+                Token type = next(t);
+                Token open = next(type);
+                if((type.kind == INTEGER || type.kind == BOOLEAN) && open.kind == LSQPAREN) return skip_brackets(open);
+                // new Identifier ( ), when it is not the parse reports it
+                return next(next(open));
+            }
+            default:
+                return null;
+        }
+    }
+
+    // the token after the bracket that closes the one at open, null when it is never closed
+    private Token skip_brackets(Token open)
+    {
+        Token after = matched.get(open);
+        if(after != null) return after;
+
+        // every bracket in the ones matched before has been matched too, so this one is outside them
+        // and so is the parser, what is remembered about them is of no use any more
+        if(matched.size() > FORGET_BY_CLEARING) matched = new HashMap<Token, Token>();
+        else matched.clear();
+
+        // both kinds of brackets are counted together, a pair that does not match is reported by the parse
+        opened.add(open);
+        Token t = next(open);
+        for(;;)
+        {
+            switch(t.kind)
+            {
+                case EOF:
+                    opened.clear();
+                    return null;
+                case LPAREN:
+                case LSQPAREN:
+                    opened.add(t);
+                    break;
+                case RPAREN:
+                case RSQPAREN:
+                    after = next(t);
+                    matched.put(opened.remove(opened.size() - 1), after);
+                    if(opened.isEmpty()) return after;
+                    t = after;
+                    continue;
+            }
+            t = next(t);
+        }
+    }
+}
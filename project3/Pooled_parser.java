@@ -0,0 +1,66 @@
+import java.nio.ByteBuffer;
+
+// A MiniJavaParser over an Ascii_token_manager, kept by every thread and reset for each source it
+// parses, so that a batch or a server compiling many small files does not build a parser, a token
+// manager and their tables for every one of them.
+//
+// The token manager keeps no positions, the tokens only know their offsets: a ParseException has
+// to go through lexer.locate() to report where it happened.
+//
+// acquire() hands out the parser of the calling thread, started on the given source, and release()
+// gives it back once the parse is over, letting go of the source and of the tokens read from it. A
+// thread that acquires a parser while its own is still out gets a new one that is not kept.
+class Pooled_parser
+{
+    private static final ThreadLocal<Pooled_parser> pooled = new ThreadLocal<Pooled_parser>();
+
+    final Ascii_token_manager lexer;
+    final MiniJavaParser parser;
+    // whether this is the parser of its thread, and whether it is handed out
+    private final boolean kept;
+    private boolean in_use;
+
+    private Pooled_parser(ByteBuffer data, int start, int limit, int startline, int startcolumn, boolean kept)
+    {
+        lexer = new Ascii_token_manager(data, start, limit, startline, startcolumn, false);
+        parser = new MiniJavaParser(lexer);
+        this.kept = kept;
+        in_use = true;
+    }
+
+    // a parser for data from start to limit, whose first character is at startline and startcolumn
+    public static Pooled_parser acquire(ByteBuffer data, int start, int limit, int startline, int startcolumn)
+    {
+        Pooled_parser p = pooled.get();
+        if(p == null)
+        {
+            p = new Pooled_parser(data, start, limit, startline, startcolumn, true);
+            pooled.set(p);
+            return p;
+        }
+        if(p.in_use) return new Pooled_parser(data, start, limit, startline, startcolumn, false);
+
+        // release() left the parser reset, only the token manager has to be started on the source
+        p.lexer.reset(data, start, limit, startline, startcolumn, false);
+        p.in_use = true;
+        return p;
+    }
+
+    // a parser for the whole of data
+    public static Pooled_parser acquire(ByteBuffer data)
+    {
+        return acquire(data, 0, data.limit(), 1, 1);
+    }
+
+    // gives the parser back, the trees it built stay with the caller
+    public void release()
+    {
+        if(!kept) return;
+
+        lexer.release();
+        parser.lookahead.reset();
+        // the last token read is all the parser holds on to, a fresh one takes its place
+        parser.ReInit(lexer);
+        in_use = false;
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.*;
+
+// Name lookup in the scopes a visitor has open, over a frozen Symbol_table.
+//
+// Lookup goes through bindings, an array indexed by identifier id holding the innermost
+// declaration of every visible name, so it takes the same time however many variables the
+// program has. Opening a scope records where it starts; closing it puts back whatever its
+// declarations were hiding. A class scope makes the fields of the class and of its ancestors
+// visible, a method scope then adds the parameters and the locals of the method on top of them.
+class Scope
+{
+    private final Symbol_table symbols;
+
+    // innermost declaration of every visible name
+    private Var_info[] bindings;
+
+    // what every binding replaced, so that closing a scope can put it back
+    private int[] undo_ids;
+    private Var_info[] undo_vars;
+    private int undo_count;
+    // undo_count at the start of every open scope
+    private int[] marks;
+    private int depth;
+
+    // the class and the method whose scopes are open, if any
+    Class_info current_class;
+    Method_info current_method;
+
+    public Scope(Symbol_table symbols)
+    {
+        this.symbols = symbols;
+        bindings = new Var_info[Math.max(symbols.size(), 16)];
+        undo_ids = new int[64];
+        undo_vars = new Var_info[64];
+        undo_count = 0;
+        marks = new int[8];
+        depth = 0;
+    }
+
+    // makes the fields of the class and of its ancestors visible, the class's own ones hiding inherited ones
+    public void open_class(Class_info c)
+    {
+        current_class = c;
+        current_method = null;
+
+        open_scope();
+        List<Class_info> ancestors = new ArrayList<Class_info>();
+        for(Class_info a = c.parent(); a != null; a = a.parent()) ancestors.add(a);
+        for(int i = ancestors.size() - 1; i >= 0; i--)
+        {
+            for(Var_info f: ancestors.get(i).fields.values()) bind(f);
+        }
+
+        open_scope();
+        for(Var_info f: c.fields.values()) bind(f);
+    }
+
+    public void close_class()
+    {
+        close_method();
+        close_scope();
+        close_scope();
+        current_class = null;
+    }
+
+    // makes the variables of the method visible, on top of the fields of its class
+    public void open_method(Method_info m)
+    {
+        current_method = m;
+        open_scope();
+        for(Var_info v: m.vars.values()) bind(v);
+    }
+
+    public void close_method()
+    {
+        if(current_method == null) return;
+        close_scope();
+        current_method = null;
+    }
+
+    // the innermost declaration of a name visible from the open scopes, null when there is none
+    public Var_info lookup(String name)
+    {
+        return lookup(symbols.id(name));
+    }
+
+    public Var_info lookup(int id)
+    {
+        return id >= 0 && id < bindings.length ? bindings[id] : null;
+    }
+
+    private void open_scope()
+    {
+        if(depth == marks.length) marks = Arrays.copyOf(marks, 2 * depth);
+        marks[depth++] = undo_count;
+    }
+
+    private void close_scope()
+    {
+        int mark = marks[--depth];
+        while(undo_count > mark)
+        {
+            undo_count--;
+            int id = undo_ids[undo_count];
+            bindings[id] = undo_vars[undo_count];
+            undo_vars[undo_count] = null;
+        }
+    }
+
+    private void bind(Var_info v)
+    {
+        int id = v.id;
+        if(id >= bindings.length) bindings = Arrays.copyOf(bindings, Math.max(2 * bindings.length, id + 1));
+        if(undo_count == undo_ids.length)
+        {
+            undo_ids = Arrays.copyOf(undo_ids, 2 * undo_count);
+            undo_vars = Arrays.copyOf(undo_vars, 2 * undo_count);
+        }
+
+        undo_ids[undo_count] = id;
+        undo_vars[undo_count] = bindings[id];
+        undo_count++;
+
+        bindings[id] = v;
+    }
+}
@@ -0,0 +1,156 @@
+import syntaxtree.*;
+
+import java.nio.ByteBuffer;
+
+// Compiles a program a class at a time, so that no more than one class is ever held as a tree.
+//
+// The source is parsed twice. The first time every class is lowered to a Flat_ast of its own and
+// its declarations are collected before the next class is parsed, and the tree is dropped. By the
+// end of it the Symbol_table is complete, and every syntax error has been found at the position a
+// parse of the whole program finds it, before anything is written. The second time every
+// class is parsed and lowered again, checked against the table and generated, and then dropped. All
+// the trees intern into one Name_table, so their ids are the ids of the table. What stays alive is
+// the table and one class, however large the program is.
+//
+// A semantic error in a class is found once the classes before it are generated, so the IR written
+// so far is thrown away and the .ll is left empty. The classes after one codegen does not support
+// yet are still checked, so a program gets the diagnostic it gets when it is compiled whole.
+class Stream_compiler implements MiniJavaParserConstants
+{
+    private final ByteBuffer data;
+    private final Compile_timings timings;
+
+    // the names of every class, in the order the first parse met them
+    private final Name_table names;
+    // the declarations of the whole program, frozen by freeze()
+    final Symbol_table symbols;
+
+    // the first class that could not be lowered, thrown once the rest of the source is parsed
+    private ParseException lowering_error;
+    // the first declaration that failed, kept until the rest of the source is parsed
+    private ParseException declaration_error;
+
+    // tokens the program is made of
+    long tokens;
+
+    public Stream_compiler(ByteBuffer data, Compile_timings timings)
+    {
+        this.data = data;
+        this.timings = timings;
+        names = new Name_table();
+        symbols = new Symbol_table(names);
+    }
+
+    // parses the whole program and collects its declarations, one class at a time
+    // a syntax error anywhere is thrown before any declaration error, as it is when the program is parsed whole
+    public void declare() throws Exception
+    {
+        timings.enter(Compile_timings.PARSE);
+        Declaration_visitor declarations = new Declaration_visitor(symbols);
+
+        Pooled_parser pooled = Pooled_parser.acquire(data);
+        MiniJavaParser parser = pooled.parser;
+        try{
+            declare(declarations, parser.MainClass());
+            while(parser.getToken(1).kind == CLASS) declare(declarations, parser.TypeDeclaration());
+            parser.EndOfFile();
+        }
+        catch(ParseException ex){
+            throw pooled.lexer.locate(ex);
+        }
+        finally{
+            tokens = pooled.lexer.tokens;
+            pooled.release();
+        }
+        // a whole program is lowered before its declarations are looked at, so this comes first
+        if(lowering_error != null) throw lowering_error;
+        timings.exit();
+    }
+
+    // throws the first declaration error, or checks and lays out the declarations once they are all in
+    public void freeze() throws Exception
+    {
+        if(declaration_error != null) throw declaration_error;
+
+        timings.enter(Compile_timings.SEMANTIC);
+        symbols.freeze();
+        timings.exit();
+    }
+
+    private void declare(Declaration_visitor declarations, Node tree) throws Exception
+    {
+        // past an error the classes are only parsed, a class that cannot be lowered wins over a declaration error before it
+        if(lowering_error != null) return;
+        Flat_ast ast;
+        try{
+            ast = Flat_ast.lower(tree, names);
+        }
+        catch(ParseException ex){
+            lowering_error = ex;
+            return;
+        }
+        if(declaration_error != null) return;
+
+        timings.enter(Compile_timings.SEMANTIC);
+        try{
+            declarations.declare(ast, ast.root());
+        }
+        catch(ParseException ex){
+            declaration_error = ex;
+        }
+        timings.exit();
+    }
+
+    // parses the program again, checking and generating every class before the next one is parsed
+    public void generate(LLVM_Visitor eval) throws Exception
+    {
+        timings.enter(Compile_timings.CODEGEN);
+        MyVisitor check = new MyVisitor(symbols);
+        // the first class codegen gave up on, reported once all the classes have been checked
+        UnsupportedOperationException unsupported = null;
+        boolean generated = false;
+
+        Pooled_parser pooled = Pooled_parser.acquire(data);
+        try{
+            eval.header();
+
+            MiniJavaParser parser = pooled.parser;
+            for(Flat_ast ast = next_class(parser, true); ast != null; ast = next_class(parser, false))
+            {
+                timings.enter(Compile_timings.SEMANTIC);
+                check.walk(ast, ast.root());
+                timings.exit();
+
+                if(unsupported == null)
+                {
+                    try{
+                        eval.walk(ast, ast.root());
+                    }
+                    catch(UnsupportedOperationException ex){
+                        unsupported = ex;
+                    }
+                }
+            }
+
+            if(unsupported != null) throw unsupported;
+            generated = true;
+        }
+        finally{
+            pooled.release();
+            // whatever stops the program, the IR written for the classes before it is thrown away and the file closed
+            if(!generated) eval.ll_writer.discard();
+        }
+        timings.exit();
+    }
+
+    // parses and lowers the next class, null once they are all read
+    // the first parse went through the same tokens, so this one cannot fail and ends where it did
+    private Flat_ast next_class(MiniJavaParser parser, boolean first) throws Exception
+    {
+        timings.enter(Compile_timings.PARSE);
+        Node tree = first ? parser.MainClass() : parser.getToken(1).kind == CLASS ? parser.TypeDeclaration() : null;
+        Flat_ast ast = tree == null ? null : Flat_ast.lower(tree, names);
+        timings.exit();
+        return ast;
+    }
+}
@@ -0,0 +1,240 @@
+import syntaxtree.*;
+
+import java.util.*;
+
+// The declarations of a program: its classes, their fields and methods, and the parameters and
+// locals of every method, kept in Class_info, Method_info and Var_info records.
+//
+// Every identifier is interned to an int id once. The table is filled by the declaration pass
+// and then frozen, which lays out the fields and the methods of every class. From then on it
+// does not change, and the semantic check and codegen both read it through a Scope of their own.
+class Symbol_table
+{
+    // interned identifiers, shared with the trees of the program
+    private final Name_table names;
+
+    // classes in declaration order, and by the id of their name
+    private final List<Class_info> classes;
+    private Class_info[] class_by_id;
+
+    // set once the declarations are complete and laid out
+    private boolean frozen;
+
+    public Symbol_table()
+    {
+        this(new Name_table());
+    }
+
+    // a table whose ids are the ones names gives, so a name in a tree interned into names has its id here
+    public Symbol_table(Name_table names)
+    {
+        this.names = names;
+        classes = new ArrayList<Class_info>();
+        class_by_id = new Class_info[64];
+        frozen = false;
+    }
+
+    // the id of an identifier, a new one the first time it is seen
+    public int intern(String name)
+    {
+        return names.intern(name);
+    }
+
+    // the id of an identifier, -1 when it was never interned and so cannot name anything
+    public int id(String name)
+    {
+        return names.id(name);
+    }
+
+    public String name(int id)
+    {
+        return names.name(id);
+    }
+
+    // number of identifiers interned so far
+    public int size()
+    {
+        return names.size();
+    }
+
+    // declares a class, returns null when a class with that name exists already
+    public Class_info declare_class(String name, String parent)
+    {
+        check_open();
+        int id = intern(name);
+        if(class_of(id) != null) return null;
+
+        Class_info c = new Class_info(this, id, name, parent == null ? -1 : intern(parent));
+        if(id >= class_by_id.length) class_by_id = Arrays.copyOf(class_by_id, Math.max(2 * class_by_id.length, id + 1));
+        class_by_id[id] = c;
+        classes.add(c);
+        return c;
+    }
+
+    public Class_info class_of(String name)
+    {
+        return class_of(id(name));
+    }
+
+    public Class_info class_of(int id)
+    {
+        return id >= 0 && id < class_by_id.length ? class_by_id[id] : null;
+    }
+
+    public List<Class_info> classes()
+    {
+        return classes;
+    }
+
+    // declares a field, returns null when the class has one with that name already
+    public Var_info declare_field(Class_info c, String name, String type)
+    {
+        check_open();
+        int id = intern(name);
+        if(c.fields.containsKey(id)) return null;
+
+        Var_info v = new Var_info(id, name, type, Var_info.FIELD, c.fields.size());
+        c.fields.put(id, v);
+        return v;
+    }
+
+    // declares a method, returns null when the class has one with that name already
+    public Method_info declare_method(Class_info c, String name, String type)
+    {
+        check_open();
+        int id = intern(name);
+        if(c.methods.containsKey(id)) return null;
+
+        Method_info m = new Method_info(c, id, name, type);
+        c.methods.put(id, m);
+        return m;
+    }
+
+    // declares a parameter, returns null when the method has a variable with that name already
+    public Var_info declare_param(Method_info m, String name, String type)
+    {
+        Var_info v = declare_var(m, name, type, Var_info.PARAM);
+        if(v != null) m.params.add(v);
+        return v;
+    }
+
+    // declares a local, returns null when the method has a variable with that name already
+    public Var_info declare_local(Method_info m, String name, String type)
+    {
+        return declare_var(m, name, type, Var_info.LOCAL);
+    }
+
+    private Var_info declare_var(Method_info m, String name, String type, int kind)
+    {
+        check_open();
+        int id = intern(name);
+        if(m.vars.containsKey(id)) return null;
+
+        Var_info v = new Var_info(id, name, type, kind, m.vars.size());
+        m.vars.put(id, v);
+        return v;
+    }
+
+    // the method a class declares itself under that name
+    public Method_info own_method(Class_info c, String name)
+    {
+        int id = id(name);
+        return id < 0 ? null : c.methods.get(id);
+    }
+
+    // the method a class has under that name, declared in it or inherited
+    public Method_info find_method(Class_info c, String name)
+    {
+        int id = id(name);
+        if(id < 0) return null;
+
+        for(; c != null; c = c.parent())
+        {
+            Method_info m = c.methods.get(id);
+            if(m != null) return m;
+        }
+        return null;
+    }
+
+    // ends the declarations: checks the inheritance and lays out every class, parents first
+    public void freeze() throws ParseException
+    {
+        if(frozen) return;
+
+        for(Class_info c: classes)
+        {
+            if(c.parent_id >= 0 && c.parent() == null) throw new ParseException("Semantic Error, Class: " + c.name + " extends undeclared class " + name(c.parent_id));
+
+            // a chain that comes back to the class would never end
+            int steps = 0;
+            for(Class_info a = c.parent(); a != null; a = a.parent())
+            {
+                if(a == c || ++steps > classes.size()) throw new ParseException("Semantic Error, Class: " + c.name + " inherits from itself");
+            }
+        }
+
+        for(Class_info c: classes) lay_out(c);
+        frozen = true;
+    }
+
+    public boolean is_frozen()
+    {
+        return frozen;
+    }
+
+    // fields follow the fields of the parent, int is 4 bytes, boolean 1 and everything else a pointer of 8;
+    // methods get the next 8 byte slot unless they override one of the parent's
+    private void lay_out(Class_info c)
+    {
+        if(c.laid_out) return;
+
+        Class_info parent = c.parent();
+        int field_offset = 0;
+        if(parent != null)
+        {
+            lay_out(parent);
+            field_offset = parent.field_size;
+            c.vtable.addAll(parent.vtable);
+        }
+
+        for(Var_info f: c.fields.values())
+        {
+            f.offset = field_offset;
+            if(f.type.equals("int")) field_offset += 4;
+            else if(f.type.equals("boolean")) field_offset += 1;
+            else field_offset += 8;
+        }
+        c.field_size = field_offset;
+
+        for(Method_info m: c.methods.values())
+        {
+            Method_info overridden = find_method(parent, m.name);
+            if(overridden != null)
+            {
+                m.offset = overridden.offset;
+                c.vtable.set(overridden.offset / 8, m);
+            }
+            else
+            {
+                m.offset = 8 * c.vtable.size();
+                c.vtable.add(m);
+            }
+        }
+        c.laid_out = true;
+    }
+
+    private void check_open()
+    {
+        if(frozen) throw new IllegalStateException("the symbol table is frozen");
+    }
+
+    // the MiniJava name of a type, as the table keeps it
+    public static String type_name(Type n)
+    {
+        Node type = n.f0.choice;
+        if(type instanceof ArrayType) return ((ArrayType) type).f0.choice instanceof IntegerArrayType ? "int[]" : "boolean[]";
+        if(type instanceof BooleanType) return "boolean";
+        if(type instanceof IntegerType) return "int";
+        return ((Identifier) type).f0.toString();
+    }
+}
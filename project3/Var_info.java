@@ -0,0 +1,27 @@
+// A field, parameter or local variable with its MiniJava type
+class Var_info
+{
+    static final int FIELD = 0;
+    static final int PARAM = 1;
+    static final int LOCAL = 2;
+
+    public final int id;
+    public final String name;
+    public final String type;
+    public final int kind;
+    // position among the fields of its class or the variables of its method
+    public final int index;
+
+    // offset of a field in the objects of its class, -1 for everything else
+    public int offset;
+
+    Var_info(int id, String name, String type, int kind, int index)
+    {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.kind = kind;
+        this.index = index;
+        offset = -1;
+    }
+}
@@ -0,0 +1,21 @@
+class ArrayLengthIf {
+    public static void main(String[] args) {
+        int[] x;
+        int i;
+
+        i = 0;
+        while(i < 3)
+        {
+            i = i + 1;
+        }
+        if(i < 2)
+        {
+            x = new int[5];
+        }
+        else
+        {
+            x = new int[6];
+        }
+        System.out.println(x.length);
+    }
+}
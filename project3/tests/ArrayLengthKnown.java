@@ -0,0 +1,18 @@
+class ArrayLengthKnown {
+    public static void main(String[] args) {
+        int[] a;
+        int i;
+        a = new int[5];
+        i = 0;
+        while((a.length) < 3)
+        {
+            i = i + 1;
+        }
+        while(((new int[4]).length) < 3)
+        {
+            a = new int[i];
+        }
+        System.out.println(a.length);
+        System.out.println(i);
+    }
+}
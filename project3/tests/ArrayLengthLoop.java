@@ -0,0 +1,15 @@
+class ArrayLengthLoop {
+    public static void main(String[] args) {
+        int[] x;
+        int i;
+
+        x = new int[3];
+        i = 0;
+        while(i < 2)
+        {
+            x = new int[3];
+            i = i + 1;
+        }
+        System.out.println(x.length);
+    }
+}
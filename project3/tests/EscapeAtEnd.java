@@ -0,0 +1 @@
+class Main { public static void main(String[] a){ int \u0041
\ No newline at end of file